@@ -0,0 +1,85 @@
+package com.ticketing.benchmarks;
+
+import com.ticketing.model.Comment;
+import com.ticketing.model.Role;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.TicketStatus;
+import com.ticketing.model.User;
+import com.ticketing.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message building in EmailService, with a sender that hands the message to the blackhole instead of SMTP. Outside
+ * a Spring context @Async does not apply, so each call renders on the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    private EmailService emailService;
+    private CapturingMailSender mailSender;
+    private Ticket ticket;
+    private User previousAssignee;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        mailSender = new CapturingMailSender();
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "support@example.com");
+        ReflectionTestUtils.setField(emailService, "meterRegistry", new SimpleMeterRegistry());
+
+        User creator = Fixtures.user(1, Role.USER);
+        User agent = Fixtures.user(2, Role.SUPPORT_AGENT);
+        previousAssignee = Fixtures.user(3, Role.SUPPORT_AGENT);
+        ticket = Fixtures.ticket(1, creator, agent);
+        comment = new Comment("Replaced the cartridge, please confirm the prints look right.", ticket, agent);
+    }
+
+    @Benchmark
+    public void ticketCreated(Blackhole blackhole) {
+        mailSender.blackhole = blackhole;
+        emailService.sendTicketCreatedNotification(ticket);
+    }
+
+    @Benchmark
+    public void statusChanged(Blackhole blackhole) {
+        mailSender.blackhole = blackhole;
+        emailService.sendTicketStatusChangedNotification(ticket, TicketStatus.OPEN);
+    }
+
+    @Benchmark
+    public void ticketAssigned(Blackhole blackhole) {
+        mailSender.blackhole = blackhole;
+        emailService.sendTicketAssignedNotification(ticket, previousAssignee);
+    }
+
+    @Benchmark
+    public void commentAdded(Blackhole blackhole) {
+        mailSender.blackhole = blackhole;
+        emailService.sendCommentAddedNotification(ticket, comment);
+    }
+
+    static class CapturingMailSender extends JavaMailSenderImpl {
+        Blackhole blackhole;
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            for (SimpleMailMessage message : simpleMessages) {
+                blackhole.consume(message.getText());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ticketing.benchmarks;
+
+import com.ticketing.model.Priority;
+import com.ticketing.model.Role;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.TicketStatus;
+import com.ticketing.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detached entities shaped like the ones the controllers serve. Collections stay empty: Comment and Rating point back
+ * at their ticket without @JsonIgnore, so a populated graph would not serialize at all.
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    static User user(long id, Role role) {
+        User user = new User("user" + id, "user" + id + "@example.com",
+                "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6Ma0RnTsnB7a0hNXe4lhZ4K", "First" + id, "Last" + id);
+        user.setId(id);
+        user.setRole(role);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        return user;
+    }
+
+    static Ticket ticket(long id, User creator, User assignee) {
+        Ticket ticket = new Ticket("Printer on floor " + id + " is out of toner",
+                "The printer next to the kitchen shows a toner warning and prints blank pages since this morning.",
+                creator);
+        ticket.setId(id);
+        ticket.setAssignee(assignee);
+        ticket.setStatus(assignee != null ? TicketStatus.IN_PROGRESS : TicketStatus.OPEN);
+        ticket.setPriority(Priority.values()[(int) (id % Priority.values().length)]);
+        ticket.setCreatedAt(LocalDateTime.of(2024, 3, 1, 10, 30).plusMinutes(id));
+        ticket.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 11, 0).plusMinutes(id));
+        return ticket;
+    }
+}
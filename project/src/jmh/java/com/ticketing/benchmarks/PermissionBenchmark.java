@@ -0,0 +1,79 @@
+package com.ticketing.benchmarks;
+
+import com.ticketing.model.Role;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.User;
+import com.ticketing.security.UserPrincipal;
+import com.ticketing.service.CommentService;
+import com.ticketing.service.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The permission checks are private to their services; constant method handles reach them without reflection
+ * overhead showing up in the numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionBenchmark {
+
+    private static final MethodHandle CAN_VIEW = handle(CommentService.class, "canUserViewTicket");
+    private static final MethodHandle CAN_MODIFY = handle(TicketService.class, "canUserModifyTicket");
+
+    /** Which branch of the checks the caller lands in */
+    @Param({"ADMIN", "CREATOR", "ASSIGNEE", "OTHER_AGENT"})
+    public String caller;
+
+    private CommentService commentService;
+    private TicketService ticketService;
+    private Ticket ticket;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        commentService = new CommentService();
+        ticketService = new TicketService();
+
+        User creator = Fixtures.user(1, Role.USER);
+        User assignee = Fixtures.user(2, Role.SUPPORT_AGENT);
+        ticket = Fixtures.ticket(1, creator, assignee);
+        user = switch (caller) {
+            case "ADMIN" -> Fixtures.user(3, Role.ADMIN);
+            case "CREATOR" -> creator;
+            case "ASSIGNEE" -> assignee;
+            default -> Fixtures.user(4, Role.SUPPORT_AGENT);
+        };
+    }
+
+    @Benchmark
+    public boolean canUserViewTicket() throws Throwable {
+        return (boolean) CAN_VIEW.invokeExact(commentService, ticket, user);
+    }
+
+    @Benchmark
+    public boolean canUserModifyTicket() throws Throwable {
+        return (boolean) CAN_MODIFY.invokeExact(ticketService, ticket, user);
+    }
+
+    @Benchmark
+    public UserPrincipal createUserPrincipal() {
+        return UserPrincipal.create(user);
+    }
+
+    private static MethodHandle handle(Class<?> service, String name) {
+        try {
+            return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+                    .findVirtual(service, name, MethodType.methodType(boolean.class, Ticket.class, User.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Permission check " + service.getSimpleName() + "." + name + " not found", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ticketing.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.dto.UserResponse;
+import com.ticketing.json.JsonConfig;
+import com.ticketing.model.Role;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /** Page size, as sent by the list endpoints' size parameter */
+    @Param({"10", "100"})
+    public int size;
+
+    /** Whether the Blackbird module replaces reflective property access, as with json.blackbird */
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private Ticket ticket;
+    private Page<Ticket> page;
+    private UserResponse userResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same defaults Boot applies to the MVC converter: java.time support, ISO dates
+        objectMapper = JsonConfig.registerModules(Jackson2ObjectMapperBuilder.json().build(), blackbird);
+
+        User creator = Fixtures.user(1, Role.USER);
+        User agent = Fixtures.user(2, Role.SUPPORT_AGENT);
+        ticket = Fixtures.ticket(1, creator, agent);
+
+        List<Ticket> tickets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tickets.add(Fixtures.ticket(i + 1, creator, i % 3 == 0 ? null : agent));
+        }
+        page = new PageImpl<>(tickets, PageRequest.of(0, size, Sort.by("createdAt").descending()), 10_000);
+        userResponse = new UserResponse(creator);
+
+        // Bytes on the wire, printed once per fork
+        System.out.printf("%nticket page of %d: %d bytes, %d bytes gzipped%n",
+                size, objectMapper.writeValueAsBytes(page).length, ticketPageGzip().length);
+    }
+
+    @Benchmark
+    public byte[] ticket() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ticket);
+    }
+
+    @Benchmark
+    public byte[] ticketPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    /** What Tomcat does for a compressed response, at its default compression level */
+    @Benchmark
+    public byte[] ticketPageGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 8192)) {
+            objectMapper.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] userResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userResponse);
+    }
+}
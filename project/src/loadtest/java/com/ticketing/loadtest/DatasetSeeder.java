@@ -0,0 +1,266 @@
+package com.ticketing.loadtest;
+
+import com.ticketing.model.Priority;
+import com.ticketing.model.TicketStatus;
+import com.ticketing.storage.BlobKeys;
+import com.ticketing.storage.FileSystemBlobStore;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Seeds users, tickets, comments and attachments with COPY. Rows get explicit ids above the current maximum so
+ * foreign keys can be written without reading anything back, and the identity sequences are moved past them at the
+ * end. Seeding again adds another batch next to the existing data.
+ */
+final class DatasetSeeder {
+
+    static final String USERNAME_PREFIX = "lt_";
+
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    private static final double[] STATUS_WEIGHTS = {0.12, 0.18, 0.25, 0.45};  // OPEN, IN_PROGRESS, RESOLVED, CLOSED
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final double[] PRIORITY_WEIGHTS = {0.30, 0.45, 0.20, 0.05};  // LOW, MEDIUM, HIGH, URGENT
+
+    private final Options options;
+    private final SplittableRandom random;
+    private final long now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+
+    DatasetSeeder(Options options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.longValue("seed", 42));
+    }
+
+    void seed() throws SQLException, IOException {
+        int admins = options.integer("admins", 5);
+        int agents = options.integer("agents", 200);
+        int users = options.integer("users", 20_000);
+        int tickets = options.integer("tickets", 1_000_000);
+        double commentsPerTicket = options.decimal("comments-per-ticket", 3.0);
+        double attachmentRatio = options.decimal("attachment-ratio", 0.05);
+        int days = options.integer("days", 365);
+
+        try (Connection connection = connect(options)) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            long userBase = maxId(connection, "users");
+            long ticketBase = maxId(connection, "tickets");
+            long commentBase = maxId(connection, "comments");
+
+            long started = System.nanoTime();
+            seedUsers(copyManager, userBase, admins, agents, users, days);
+            long firstAgent = userBase + admins + 1;
+            long firstUser = firstAgent + agents;
+
+            // Per-ticket facts the comment and attachment passes need, kept compact enough for tens of millions
+            int[] creators = new int[tickets];
+            int[] assignees = new int[tickets];
+            int[] createdAt = new int[tickets];
+            seedTickets(copyManager, ticketBase, firstAgent, agents, firstUser, users, days,
+                    creators, assignees, createdAt);
+            seedComments(copyManager, ticketBase, commentBase, firstAgent, firstUser, commentsPerTicket,
+                    creators, assignees, createdAt);
+            seedAttachments(copyManager, ticketBase, firstUser, attachmentRatio, creators, createdAt);
+
+            try (Statement statement = connection.createStatement()) {
+                for (String table : new String[]{"users", "tickets", "comments"}) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                            "(SELECT MAX(id) FROM " + table + "))");
+                }
+                statement.execute("ANALYZE users, tickets, comments, attachments");
+            }
+            System.out.printf("Seeding finished in %ds%n", (System.nanoTime() - started) / 1_000_000_000L);
+            System.out.println("Rebuild the storage quota counters with POST /api/admin/storage/usage/rebuild");
+        }
+    }
+
+    static Connection connect(Options options) throws SQLException {
+        return DriverManager.getConnection(
+                options.string("db-url", "jdbc:postgresql://localhost:5432/ticketing_system"),
+                options.string("db-user", "postgres"),
+                options.string("db-password", "utpal"));
+    }
+
+    private void seedUsers(CopyManager copyManager, long base, int admins, int agents, int users, int days)
+            throws SQLException {
+        // One hash for everyone: BCrypt per row would dominate the seeding time
+        String password = new BCryptPasswordEncoder().encode(options.string("password", "loadtest123"));
+        int total = admins + agents + users;
+        try (CopyWriter copy = new CopyWriter(copyManager, "users",
+                "id, username, email, password, first_name, last_name, active, role, created_at, updated_at")) {
+            for (int i = 0; i < total; i++) {
+                long id = base + 1 + i;
+                String role = i < admins ? "ADMIN" : i < admins + agents ? "SUPPORT_AGENT" : "USER";
+                LocalDateTime created = timestamp(now - random.nextLong(days * 86_400L + 1));
+                copy.value(id)
+                        .value(USERNAME_PREFIX + role.toLowerCase() + "_" + id)
+                        .value(USERNAME_PREFIX + id + "@loadtest.example.com")
+                        .value(password)
+                        .value("Load")
+                        .value("Tester " + id)
+                        .value(true)
+                        .value(role)
+                        .value(created)
+                        .value(created);
+                copy.endRow();
+            }
+            System.out.printf("users: %d (%d admins, %d agents)%n", total, admins, agents);
+        }
+    }
+
+    private void seedTickets(CopyManager copyManager, long base, long firstAgent, int agents,
+                             long firstUser, int users, int days,
+                             int[] creators, int[] assignees, int[] createdAt) throws SQLException {
+        try (CopyWriter copy = new CopyWriter(copyManager, "tickets",
+                "id, subject, description, status, priority, creator_id, assignee_id, " +
+                "created_at, updated_at, resolved_at, closed_at")) {
+            for (int i = 0; i < creators.length; i++) {
+                TicketStatus status = STATUSES[weighted(STATUS_WEIGHTS)];
+                // Older tickets are mostly closed, new ones mostly open: age follows status
+                double age = random.nextDouble();
+                if (status == TicketStatus.OPEN || status == TicketStatus.IN_PROGRESS) {
+                    age = age * age * age;
+                }
+                long created = now - (long) (age * days * 86_400L);
+                long updated = Math.min(now, created + random.nextLong(3 * 86_400L));
+
+                // A few power users file most tickets and a few agents carry most of the queue
+                int creator = TextGenerator.skewed(random, users);
+                int assignee = status == TicketStatus.OPEN && random.nextDouble() < 0.7
+                        ? -1 : TextGenerator.skewed(random, agents);
+                creators[i] = creator;
+                assignees[i] = assignee;
+                createdAt[i] = (int) (created - now);
+
+                copy.value(base + 1 + i)
+                        .value(TextGenerator.subject(random))
+                        .value(TextGenerator.description(random))
+                        .value(status)
+                        .value(PRIORITIES[weighted(PRIORITY_WEIGHTS)])
+                        .value(firstUser + creator)
+                        .value(assignee < 0 ? null : firstAgent + assignee)
+                        .value(timestamp(created))
+                        .value(timestamp(updated))
+                        .value(status == TicketStatus.RESOLVED || status == TicketStatus.CLOSED ? timestamp(updated) : null)
+                        .value(status == TicketStatus.CLOSED ? timestamp(updated) : null);
+                copy.endRow();
+                progress("tickets", copy.rows());
+            }
+            System.out.printf("tickets: %d%n", copy.rows());
+        }
+    }
+
+    private void seedComments(CopyManager copyManager, long ticketBase, long commentBase,
+                              long firstAgent, long firstUser, double perTicket,
+                              int[] creators, int[] assignees, int[] createdAt) throws SQLException {
+        // Geometric count per ticket: most tickets get a few comments, a long tail gets many
+        double p = 1.0 / (perTicket + 1.0);
+        long id = commentBase;
+        try (CopyWriter copy = new CopyWriter(copyManager, "comments",
+                "id, content, ticket_id, author_id, created_at, is_internal")) {
+            for (int i = 0; i < creators.length; i++) {
+                int count = (int) Math.floor(Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+                long at = now + createdAt[i];
+                for (int c = 0; c < count; c++) {
+                    boolean byAgent = assignees[i] >= 0 && c % 2 == 0;
+                    at = Math.min(now, at + random.nextLong(1, 86_400L));
+                    copy.value(++id)
+                            .value(TextGenerator.comment(random))
+                            .value(ticketBase + 1 + i)
+                            .value(byAgent ? firstAgent + assignees[i] : firstUser + creators[i])
+                            .value(timestamp(at))
+                            .value(byAgent && random.nextDouble() < 0.1);
+                    copy.endRow();
+                    progress("comments", copy.rows());
+                }
+            }
+            System.out.printf("comments: %d%n", copy.rows());
+        }
+    }
+
+    private void seedAttachments(CopyManager copyManager, long ticketBase, long firstUser, double ratio,
+                                 int[] creators, int[] createdAt) throws SQLException, IOException {
+        FileSystemBlobStore blobStore = new FileSystemBlobStore(options.string("upload-dir", "uploads"));
+        try (CopyWriter copy = new CopyWriter(copyManager, "attachments",
+                "file_name, original_file_name, content_type, file_size, storage_key, stored_size, " +
+                "checksum_crc32, ticket_id, uploaded_by, uploaded_at")) {
+            for (int i = 0; i < creators.length; i++) {
+                if (random.nextDouble() >= ratio) {
+                    continue;
+                }
+                byte[] content = logExcerpt(ticketBase + 1 + i);
+                CRC32 crc = new CRC32();
+                crc.update(content);
+                String key = BlobKeys.newKey(".txt");
+                blobStore.put(key, new ByteArrayInputStream(content), content.length);
+
+                copy.value(BlobKeys.fileNameOf(key))
+                        .value("log-" + (ticketBase + 1 + i) + ".txt")
+                        .value("text/plain")
+                        .value(content.length)
+                        .value(key)
+                        .value(content.length)
+                        .value(crc.getValue())
+                        .value(ticketBase + 1 + i)
+                        .value(firstUser + creators[i])
+                        .value(timestamp(now + createdAt[i]));
+                copy.endRow();
+                progress("attachments", copy.rows());
+            }
+            System.out.printf("attachments: %d%n", copy.rows());
+        }
+    }
+
+    private byte[] logExcerpt(long ticketId) {
+        StringBuilder log = new StringBuilder();
+        int lines = 20 + random.nextInt(60);
+        for (int i = 0; i < lines; i++) {
+            log.append("2024-03-01T10:").append(String.format("%02d", i % 60))
+                    .append(":00Z INFO ticket=").append(ticketId)
+                    .append(" step=").append(i).append(" status=ok\n");
+        }
+        return log.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int weighted(double[] weights) {
+        double u = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            u -= weights[i];
+            if (u < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static LocalDateTime timestamp(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private static void progress(String table, long rows) {
+        if (rows % 500_000 == 0) {
+            System.out.printf("%s: %d...%n", table, rows);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ticketing.loadtest;
+
+/**
+ * Entry point for the load-test harness: {@code seed} fills the database with a synthetic dataset, {@code run}
+ * drives a mixed workload against a running instance and reports latency per endpoint, {@code replay} re-issues a
+ * traffic capture, {@code compare} diffs two reports, {@code startup} compares startup across build modes,
+ * {@code stale-reads} checks that cached ticket reads stay current under concurrent writes, and
+ * {@code transition-race} checks that concurrent status changes and assignments are never lost.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "help";
+        switch (command) {
+            case "seed" -> new DatasetSeeder(Options.parse(args, 1)).seed();
+            case "run" -> new WorkloadDriver(Options.parse(args, 1)).run();
+            case "replay" -> new ReplayDriver(Options.parse(args, 1)).run();
+            case "compare" -> {
+                if (new ReportComparison(Options.parse(args, 1)).compare()) {
+                    System.exit(1);
+                }
+            }
+            case "startup" -> new StartupComparison(Options.parse(args, 1)).run();
+            case "stale-reads" -> {
+                if (new StaleReadCheck(Options.parse(args, 1)).run()) {
+                    System.exit(1);
+                }
+            }
+            case "transition-race" -> {
+                if (new TransitionRace(Options.parse(args, 1)).run()) {
+                    System.exit(1);
+                }
+            }
+            default -> usage();
+        }
+    }
+
+    private static void usage() {
+        System.out.println("""
+                Usage: LoadTest seed|run|replay|compare|startup|stale-reads|transition-race [--option value ...]
+
+                Common:  --db-url jdbc:postgresql://localhost:5432/ticketing_system --db-user postgres
+                         --db-password utpal --password loadtest123 (password of the seeded accounts)
+
+                seed:    --admins 5 --agents 200 --users 20000 --tickets 1000000 --comments-per-ticket 3.0
+                         --attachment-ratio 0.05 --days 365 --upload-dir uploads --seed 42
+
+                run:     --base-url http://localhost:8080 --rate 200 (scenarios/s) --warmup 30s --duration 5m
+                         --max-in-flight 2000 --user-sessions 200 --agent-sessions 50 --admin-sessions 5
+                         --mix inbox=30,search=25,create=10,comments=15,dashboard=10,stream=10
+                         --report target/loadtest-report.json
+
+                replay:  --log captures/capture-....tcap --speed 1 (or 10, or max) --base-url http://localhost:8080
+                         --max-in-flight 2000 (64 with --speed max) --user-sessions 200 --agent-sessions 50
+                         --admin-sessions 5 --report target/replay-report.json
+
+                compare: --baseline before.json --candidate after.json --threshold 10 (p99 increase in percent)
+                         --min-requests 100; exits with status 1 when an endpoint regressed
+
+                startup: --modes jvm,cds,native --runs 5 --port 18080 --timeout 2m --app-args "--name=value ..."
+                         --jar target/ticketing-system-0.0.1-SNAPSHOT.jar --cds-dir target/cds
+                         --native target/ticketing-system --report target/startup-report.json
+
+                stale-reads: --base-url http://localhost:8080 --tickets 20 --readers 32 --duration 1m
+                         --user-sessions 4 --admin-sessions 4; exits with status 1 on any stale read
+
+                transition-race: --base-url http://localhost:8080 --tickets 5 --writers 32 --duration 30s
+                         --admin-sessions 4; exits with status 1 on a lost change or an invalid transition
+                """);
+    }
+}
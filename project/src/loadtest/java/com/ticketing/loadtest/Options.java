@@ -0,0 +1,71 @@
+package com.ticketing.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code --name value} command line options with typed accessors and defaults.
+ */
+final class Options {
+
+    private final Map<String, String> values;
+
+    private Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Options parse(String[] args, int from) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = from; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value, got: " + args[i]);
+            }
+            values.put(args[i].substring(2), args[++i]);
+        }
+        return new Options(values);
+    }
+
+    /** These options, with {@code defaults} for the names not given on the command line */
+    Options withDefaults(Map<String, String> defaults) {
+        Map<String, String> merged = new HashMap<>(defaults);
+        merged.putAll(values);
+        return new Options(merged);
+    }
+
+    String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int integer(String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    long longValue(String name, long defaultValue) {
+        return values.containsKey(name) ? Long.parseLong(values.get(name)) : defaultValue;
+    }
+
+    double decimal(String name, double defaultValue) {
+        return values.containsKey(name) ? Double.parseDouble(values.get(name)) : defaultValue;
+    }
+
+    /**
+     * Durations as {@code 30s}, {@code 5m} or {@code 1h}.
+     */
+    Duration duration(String name, String defaultValue) {
+        return Duration.parse("PT" + string(name, defaultValue).trim().toUpperCase());
+    }
+
+    /**
+     * Weights as {@code name=weight,name=weight}, in the order given.
+     */
+    Map<String, Integer> weights(String name, String defaultValue) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : string(name, defaultValue).split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,198 @@
+package com.ticketing.loadtest;
+
+import com.ticketing.capture.CaptureLog;
+import com.ticketing.capture.CapturedRequest;
+import com.ticketing.capture.TrafficCaptureFilter;
+import com.ticketing.loadtest.Sessions.Session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-issues the GET requests of a traffic capture against a test instance, in order, at the captured pace scaled by
+ * {@code --speed} (or as fast as {@code --max-in-flight} allows with {@code --speed max}).
+ *
+ * Every choice is derived from the record itself, so two replays of one capture against the same seeded dataset send
+ * identical requests: the account is picked by record index within the captured role, ticket ids in the path are
+ * mapped onto that account's tickets, and hashed free-text values are mapped onto the seeded topic vocabulary.
+ */
+final class ReplayDriver {
+
+    private final Options options;
+    private final String baseUrl;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final LatencyReport report = new LatencyReport();
+    private final Map<String, Long> skipped = new TreeMap<>();
+    private final List<Long> allTickets = new ArrayList<>();
+    private Sessions sessions;
+
+    ReplayDriver(Options options) {
+        this.options = options;
+        this.baseUrl = options.string("base-url", "http://localhost:8080");
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    void run() throws Exception {
+        sessions = Sessions.signIn(options, httpClient, baseUrl);
+        for (Session session : sessions.users) {
+            allTickets.addAll(session.ticketIds);
+        }
+        for (Session session : sessions.agents) {
+            allTickets.addAll(session.ticketIds);
+        }
+
+        String speedOption = options.string("speed", "1");
+        boolean maxSpeed = speedOption.equalsIgnoreCase("max");
+        double speed = maxSpeed ? 0 : Double.parseDouble(speedOption);
+        Semaphore inFlight = new Semaphore(options.integer("max-in-flight", maxSpeed ? 64 : 2000));
+        String log = options.string("log", null);
+        if (log == null) {
+            throw new IllegalArgumentException("--log <capture file> is required");
+        }
+
+        System.out.printf("Replaying %s at %s speed%n", log, maxSpeed ? "max" : speed + "x");
+        long replayStart = System.nanoTime();
+        long index = 0;
+        try (InputStream in = Files.newInputStream(Paths.get(log));
+             CaptureLog.Reader reader = CaptureLog.reader(in)) {
+            long captureStart = reader.getStartMicros();
+            CapturedRequest record;
+            while ((record = reader.read()) != null) {
+                long recordIndex = index++;
+                if (!record.getMethod().equals("GET")) {
+                    skip("not a GET");
+                    continue;
+                }
+                List<Session> candidates = sessions.forRole(record.getRole());
+                Session session = candidates.isEmpty()
+                        ? null : candidates.get((int) Math.floorMod(recordIndex, (long) candidates.size()));
+                if (session == null && !record.getRole().equals("ANONYMOUS")) {
+                    skip("no session for role " + record.getRole());
+                    continue;
+                }
+
+                long scheduled = System.nanoTime();
+                if (!maxSpeed) {
+                    scheduled = replayStart + (long) ((record.getTimestampMicros() - captureStart) * 1000 / speed);
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                HttpRequest request = toRequest(record, session);
+                String endpoint = record.getMethod() + " " + record.getPattern();
+                long start = scheduled;
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        send(endpoint, request, maxSpeed ? System.nanoTime() : start);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        report.print(Map.of());
+        skipped.forEach((reason, count) -> System.out.printf("%d records skipped: %s%n", count, reason));
+        report.write(new File(options.string("report", "target/replay-report.json")));
+    }
+
+    private void send(String endpoint, HttpRequest request, long startNanos) {
+        boolean error = true;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            error = response.statusCode() >= 400;
+        } catch (IOException e) {
+            // Counted as an error with the time it took
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            report.record(endpoint, System.nanoTime() - startNanos, error);
+        }
+    }
+
+    private HttpRequest toRequest(CapturedRequest record, Session session) {
+        StringBuilder uri = new StringBuilder(baseUrl).append(remapPath(record, session));
+        char separator = '?';
+        for (String[] parameter : record.getParameters()) {
+            uri.append(separator).append(encode(parameter[0])).append('=').append(encode(unhash(parameter[1])));
+            separator = '&';
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri.toString()))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (session != null) {
+            request.header("Authorization", "Bearer " + session.token);
+        }
+        if (record.getPattern().startsWith("/api/v2/")) {
+            request.header("Accept", "application/x-ndjson");
+        }
+        return request.build();
+    }
+
+    /**
+     * Maps ticket ids in the path onto tickets the replaying account can see; ids from production rarely exist in a
+     * seeded database.
+     */
+    private String remapPath(CapturedRequest record, Session session) {
+        String[] patternSegments = record.getPattern().split("/");
+        String[] pathSegments = record.getPath().split("/");
+        if (patternSegments.length != pathSegments.length) {
+            return record.getPath();
+        }
+        boolean ticketResource = record.getPattern().startsWith("/api/tickets/")
+                || record.getPattern().startsWith("/api/admin/tickets/");
+        List<Long> tickets = session != null && !session.ticketIds.isEmpty() ? session.ticketIds : allTickets;
+        for (int i = 0; i < patternSegments.length; i++) {
+            String variable = patternSegments[i];
+            boolean ticketId = variable.equals("{ticketId}") || (ticketResource && variable.equals("{id}"));
+            if (ticketId && !tickets.isEmpty() && pathSegments[i].chars().allMatch(Character::isDigit)) {
+                long captured = Long.parseLong(pathSegments[i]);
+                pathSegments[i] = String.valueOf(tickets.get((int) Math.floorMod(captured, (long) tickets.size())));
+            }
+        }
+        return String.join("/", pathSegments);
+    }
+
+    private static String unhash(String value) {
+        if (!value.startsWith(TrafficCaptureFilter.HASH_PREFIX)) {
+            return value;
+        }
+        int bucket = Integer.parseInt(value.substring(1, 5), 16);
+        return TextGenerator.TOPICS[bucket % TextGenerator.TOPICS.length].toLowerCase();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void skip(String reason) {
+        skipped.merge(reason, 1L, Long::sum);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ticketing.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.TreeSet;
+
+/**
+ * Compares two reports written by {@code run} or {@code replay}, endpoint by endpoint, and flags endpoints whose
+ * p99 got worse by more than {@code --threshold} percent.
+ */
+final class ReportComparison {
+
+    private final Options options;
+
+    ReportComparison(Options options) {
+        this.options = options;
+    }
+
+    /** Returns true when at least one endpoint regressed */
+    boolean compare() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode baseline = objectMapper.readTree(new File(required("baseline"))).path("endpoints");
+        JsonNode candidate = objectMapper.readTree(new File(required("candidate"))).path("endpoints");
+        double threshold = options.decimal("threshold", 10);
+        long minRequests = options.longValue("min-requests", 100);
+
+        TreeSet<String> endpoints = new TreeSet<>();
+        baseline.fieldNames().forEachRemaining(endpoints::add);
+        candidate.fieldNames().forEachRemaining(endpoints::add);
+
+        System.out.printf("%-48s %9s %9s %8s %9s %9s %8s %9s %9s %8s%n", "endpoint",
+                "p50 base", "p50 new", "change", "p99 base", "p99 new", "change", "p999 base", "p999 new", "change");
+        boolean regressed = false;
+        for (String endpoint : endpoints) {
+            JsonNode before = baseline.path(endpoint);
+            JsonNode after = candidate.path(endpoint);
+            if (before.isMissingNode() || after.isMissingNode()) {
+                System.out.printf("%-48s only in %s%n", endpoint, before.isMissingNode() ? "candidate" : "baseline");
+                continue;
+            }
+            double p99Change = change(before, after, "p99Ms");
+            boolean enoughData = before.path("requests").asLong() >= minRequests
+                    && after.path("requests").asLong() >= minRequests;
+            boolean flagged = enoughData && p99Change > threshold;
+            regressed |= flagged;
+            System.out.printf("%-48s %9.2f %9.2f %+7.1f%% %9.2f %9.2f %+7.1f%% %9.2f %9.2f %+7.1f%%%s%n", endpoint,
+                    before.path("p50Ms").asDouble(), after.path("p50Ms").asDouble(), change(before, after, "p50Ms"),
+                    before.path("p99Ms").asDouble(), after.path("p99Ms").asDouble(), p99Change,
+                    before.path("p999Ms").asDouble(), after.path("p999Ms").asDouble(), change(before, after, "p999Ms"),
+                    flagged ? "  REGRESSION" : enoughData ? "" : "  (few samples)");
+        }
+        return regressed;
+    }
+
+    private static double change(JsonNode before, JsonNode after, String field) {
+        double base = before.path(field).asDouble();
+        return base == 0 ? 0 : (after.path(field).asDouble() - base) / base * 100;
+    }
+
+    private String required(String name) {
+        String value = options.string(name, null);
+        if (value == null) {
+            throw new IllegalArgumentException("--" + name + " <report.json> is required");
+        }
+        return value;
+    }
+}
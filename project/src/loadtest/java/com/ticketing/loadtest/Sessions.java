@@ -0,0 +1,138 @@
+package com.ticketing.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Signed-in seeded accounts per role, each with the tickets it can work on. Accounts are picked in a stable order,
+ * so two runs against the same dataset use the same accounts.
+ */
+final class Sessions {
+
+    final List<Session> users = new ArrayList<>();
+    final List<Session> agents = new ArrayList<>();
+    final List<Session> admins = new ArrayList<>();
+
+    static Sessions signIn(Options options, HttpClient httpClient, String baseUrl) throws Exception {
+        Sessions sessions = new Sessions();
+        String password = options.string("password", "loadtest123");
+        SignIn signIn = new SignIn(httpClient, baseUrl, password);
+        try (Connection connection = DatasetSeeder.connect(options)) {
+            load(connection, signIn, "USER", options.integer("user-sessions", 200),
+                    "SELECT id FROM tickets WHERE creator_id = ? ORDER BY id DESC LIMIT 20", sessions.users);
+            load(connection, signIn, "SUPPORT_AGENT", options.integer("agent-sessions", 50),
+                    "SELECT id FROM tickets WHERE assignee_id = ? AND status IN ('OPEN', 'IN_PROGRESS') " +
+                    "ORDER BY id DESC LIMIT 50", sessions.agents);
+            load(connection, signIn, "ADMIN", options.integer("admin-sessions", 5), null, sessions.admins);
+        }
+        System.out.printf("Signed in %d users, %d agents, %d admins%n",
+                sessions.users.size(), sessions.agents.size(), sessions.admins.size());
+        if (sessions.users.isEmpty() && sessions.agents.isEmpty() && sessions.admins.isEmpty()) {
+            throw new IllegalStateException("No seeded accounts found; run the seed command first");
+        }
+        return sessions;
+    }
+
+    /** Sessions for a role name as the API reports it, or an empty list */
+    List<Session> forRole(String role) {
+        return switch (role) {
+            case "USER" -> users;
+            case "SUPPORT_AGENT" -> agents;
+            case "ADMIN" -> admins;
+            default -> List.of();
+        };
+    }
+
+    static Session pick(List<Session> sessions) {
+        return sessions.isEmpty() ? null : sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+    }
+
+    private static void load(Connection connection, SignIn signIn, String role, int limit, String ticketQuery,
+                             List<Session> sessions) throws Exception {
+        String accounts = "SELECT id, username FROM users WHERE username LIKE ? AND role = ? AND active " +
+                "ORDER BY md5(username) LIMIT ?";
+        try (PreparedStatement statement = connection.prepareStatement(accounts)) {
+            statement.setString(1, DatasetSeeder.USERNAME_PREFIX.replace("_", "\\_") + "%");
+            statement.setString(2, role);
+            statement.setInt(3, limit);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Session session = new Session(rs.getString(2), role.equals("ADMIN"));
+                    if (ticketQuery != null) {
+                        session.ticketIds.addAll(ticketIds(connection, ticketQuery, rs.getLong(1)));
+                    }
+                    session.token = signIn.token(session.username);
+                    sessions.add(session);
+                }
+            }
+        }
+    }
+
+    private static List<Long> ticketIds(Connection connection, String sql, long userId) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, userId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private record SignIn(HttpClient httpClient, String baseUrl, String password) {
+        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+        String token(String username) throws Exception {
+            String body = OBJECT_MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/signin"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            // Sign-ins are rate limited per address; wait as told instead of failing the run
+            while (response.statusCode() == 429) {
+                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                Thread.sleep(Duration.ofSeconds(retryAfter));
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Sign-in failed for " + username + ": " + response.body());
+            }
+            return OBJECT_MAPPER.readTree(response.body()).get("token").asText();
+        }
+    }
+
+    static final class Session {
+        final String username;
+        final boolean admin;
+        final List<Long> ticketIds = new CopyOnWriteArrayList<>();
+        String token;
+
+        Session(String username, boolean admin) {
+            this.username = username;
+            this.admin = admin;
+        }
+
+        Long randomTicket() {
+            int size = ticketIds.size();
+            return size == 0 ? null : ticketIds.get(ThreadLocalRandom.current().nextInt(size));
+        }
+    }
+}
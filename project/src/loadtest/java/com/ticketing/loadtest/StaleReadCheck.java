@@ -0,0 +1,226 @@
+package com.ticketing.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.loadtest.Sessions.Session;
+import com.ticketing.model.TicketStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Checks that ticket reads never go back in time while the same tickets are being changed. One writer per ticket
+ * alternates {@code assignTicket} between two agents with {@code updateTicketStatus}; readers fetch the tickets at
+ * the same time. Once a write has returned, every read that starts afterwards must show that write or a newer one,
+ * judged by {@code updatedAt}. This is what the second-level cache and read coalescing must not break, since both
+ * hold ticket state outside the database.
+ *
+ * The check creates its own tickets, so the seeded ones are left alone.
+ */
+final class StaleReadCheck {
+
+    private static final int MAX_EXAMPLES = 10;
+
+    private record Version(LocalDateTime updatedAt, String status, long assigneeId) {}
+
+    private final Options options;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final Queue<String> examples = new ConcurrentLinkedQueue<>();
+
+    StaleReadCheck(Options options) {
+        this.options = options.withDefaults(Map.of("user-sessions", "4", "agent-sessions", "0",
+                "admin-sessions", "4"));
+        this.baseUrl = this.options.string("base-url", "http://localhost:8080");
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /** Returns true when at least one read was stale */
+    boolean run() throws Exception {
+        Sessions sessions = Sessions.signIn(options, httpClient, baseUrl);
+        if (sessions.users.isEmpty() || sessions.admins.isEmpty()) {
+            throw new IllegalStateException("The check needs at least one seeded user and one admin");
+        }
+        long[] agentIds = agentIds();
+        int ticketCount = options.integer("tickets", 20);
+        int readers = options.integer("readers", 32);
+        long durationNanos = options.duration("duration", "1m").toNanos();
+
+        List<Long> ticketIds = new ArrayList<>();
+        List<Session> creators = new ArrayList<>();
+        for (int i = 0; i < ticketCount; i++) {
+            Session user = sessions.users.get(i % sessions.users.size());
+            String body = objectMapper.writeValueAsString(Map.of("subject", "Stale read check " + i,
+                    "description", "Created by the stale read check", "priority", "MEDIUM"));
+            JsonNode created = send(user, post("/api/tickets", body));
+            if (created == null) {
+                throw new IllegalStateException("Ticket creation was rate limited; run with admission control off");
+            }
+            ticketIds.add(created.path("id").asLong());
+            creators.add(user);
+        }
+        AtomicReferenceArray<Version> committed = new AtomicReferenceArray<>(ticketCount);
+
+        System.out.printf("Checking %d tickets with %d readers for %s%n",
+                ticketCount, readers, options.string("duration", "1m"));
+        long end = System.nanoTime() + durationNanos;
+        for (int i = 0; i < ticketCount; i++) {
+            int index = i;
+            Session admin = sessions.admins.get(i % sessions.admins.size());
+            executor.execute(() -> write(admin, ticketIds.get(index), agentIds, committed, index, end));
+        }
+        for (int r = 0; r < readers; r++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    int index = random.nextInt(ticketCount);
+                    // Half the reads as the creator, half as staff, so both permission paths are exercised
+                    Session reader = random.nextBoolean() ? creators.get(index) : Sessions.pick(sessions.admins);
+                    read(reader, ticketIds.get(index), committed, index);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+
+        System.out.printf("writes %d, reads %d, stale %d, throttled %d, errors %d%n",
+                writes.get(), reads.get(), stale.get(), throttled.get(), errors.get());
+        examples.forEach(example -> System.out.println("  " + example));
+        if (reads.get() == 0 || writes.get() == 0) {
+            throw new IllegalStateException("Nothing was checked; see the errors above");
+        }
+        return stale.get() > 0;
+    }
+
+    private void write(Session admin, long ticketId, long[] agentIds, AtomicReferenceArray<Version> committed,
+                       int index, long end) {
+        TicketStatus[] statuses = {TicketStatus.RESOLVED, TicketStatus.IN_PROGRESS};
+        for (int i = 0; System.nanoTime() < end; i++) {
+            String path = i % 2 == 0
+                    ? "/api/tickets/" + ticketId + "/assign?assigneeId=" + agentIds[(i / 2) % agentIds.length]
+                    : "/api/tickets/" + ticketId + "/status?status=" + statuses[(i / 2) % statuses.length];
+            try {
+                JsonNode ticket = send(admin, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .timeout(Duration.ofSeconds(30))
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+                if (ticket != null) {
+                    committed.set(index, version(ticket));
+                    writes.incrementAndGet();
+                }
+            } catch (IOException e) {
+                failed("write", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void read(Session reader, long ticketId, AtomicReferenceArray<Version> committed, int index) {
+        // The newest write known to have returned before this read starts
+        Version floor = committed.get(index);
+        try {
+            JsonNode ticket = send(reader, HttpRequest.newBuilder(URI.create(baseUrl + "/api/tickets/" + ticketId))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET());
+            if (ticket == null) {
+                return;
+            }
+            reads.incrementAndGet();
+            Version seen = version(ticket);
+            if (floor != null && (seen.updatedAt().isBefore(floor.updatedAt())
+                    || seen.updatedAt().equals(floor.updatedAt()) && !seen.equals(floor))) {
+                stale.incrementAndGet();
+                if (examples.size() < MAX_EXAMPLES) {
+                    examples.add("ticket " + ticketId + " read " + seen + " after write " + floor);
+                }
+            }
+        } catch (IOException e) {
+            failed("read", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** The response body, or null when the request was rate limited and should simply be skipped */
+    private JsonNode send(Session session, HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                request.header("Authorization", "Bearer " + session.token).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 429 || response.statusCode() == 503) {
+            throttled.incrementAndGet();
+            Thread.sleep(Duration.ofSeconds(response.headers().firstValueAsLong("Retry-After").orElse(1)));
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static Version version(JsonNode ticket) {
+        // The database keeps microseconds, while a freshly written entity still has nanoseconds
+        return new Version(LocalDateTime.parse(ticket.path("updatedAt").asText()).truncatedTo(ChronoUnit.MICROS),
+                ticket.path("status").asText(), ticket.path("assignee").path("id").asLong());
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private void failed(String what, IOException e) {
+        if (errors.getAndIncrement() < MAX_EXAMPLES) {
+            System.out.println(what + " failed: " + e.getMessage());
+        }
+    }
+
+    private long[] agentIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (Connection connection = DatasetSeeder.connect(options);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id FROM users WHERE role = 'SUPPORT_AGENT' AND active ORDER BY id LIMIT 2")) {
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        if (ids.size() < 2) {
+            throw new IllegalStateException("The check needs two active support agents");
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
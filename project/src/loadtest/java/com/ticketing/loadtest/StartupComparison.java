@@ -0,0 +1,150 @@
+package com.ticketing.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the packaged application repeatedly in each build mode and measures the time until it answers HTTP and its
+ * resident set size at that point. Modes whose artifact has not been built are skipped.
+ *
+ * <ul>
+ *   <li>{@code jvm}: the Boot jar from {@code mvn package}</li>
+ *   <li>{@code cds}: the plain jar and class-data sharing archive from {@code mvn package -Pcds}</li>
+ *   <li>{@code native}: the executable from {@code mvn -Pnative native:compile}</li>
+ * </ul>
+ */
+final class StartupComparison {
+
+    private final Options options;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    StartupComparison(Options options) {
+        this.options = options;
+    }
+
+    void run() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String cdsDir = options.string("cds-dir", "target/cds");
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+        commands.put("jvm", List.of(java, "-jar", options.string("jar", "target/ticketing-system-0.0.1-SNAPSHOT.jar")));
+        commands.put("cds", List.of(java, "-XX:SharedArchiveFile=" + cdsDir + "/application.jsa",
+                "-jar", cdsDir + "/ticketing-system.jar"));
+        commands.put("native", List.of(options.string("native", "target/ticketing-system")));
+
+        int runs = options.integer("runs", 5);
+        int port = options.integer("port", 18080);
+        Duration timeout = options.duration("timeout", "2m");
+        List<String> appArgs = Arrays.stream(options.string("app-args", "").split("\\s+"))
+                .filter(arg -> !arg.isEmpty())
+                .toList();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        System.out.printf("%-8s %5s %12s %12s %12s %12s%n", "mode", "runs", "min ms", "median ms", "max ms", "RSS MB");
+        for (String mode : options.string("modes", "jvm,cds,native").split(",")) {
+            List<String> command = commands.get(mode.trim());
+            if (command == null) {
+                throw new IllegalArgumentException("Unknown mode " + mode + "; expected jvm, cds or native");
+            }
+            if (!Files.exists(Paths.get(command.get(command.size() - 1)))) {
+                System.out.printf("%-8s skipped, %s not built%n", mode, command.get(command.size() - 1));
+                continue;
+            }
+            List<String> full = new ArrayList<>(command);
+            full.add("--server.port=" + port);
+            full.addAll(appArgs);
+
+            long[] startupMillis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] measured = startOnce(mode, full, port, timeout);
+                startupMillis[run] = measured[0];
+                rssKb[run] = measured[1];
+            }
+            Arrays.sort(startupMillis);
+            Arrays.sort(rssKb);
+            System.out.printf("%-8s %5d %12d %12d %12d %12.1f%n", mode, runs,
+                    startupMillis[0], startupMillis[runs / 2], startupMillis[runs - 1], rssKb[runs / 2] / 1024.0);
+
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("startupMs", startupMillis);
+            stats.put("medianStartupMs", startupMillis[runs / 2]);
+            stats.put("rssKb", rssKb);
+            stats.put("medianRssMb", rssKb[runs / 2] / 1024.0);
+            report.put(mode, stats);
+        }
+
+        File file = new File(options.string("report", "target/startup-report.json"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, Map.of("modes", report));
+        System.out.println("Report written to " + file);
+    }
+
+    /** Returns milliseconds until the first HTTP response and the resident set size in kB at that moment */
+    private long[] startOnce(String mode, List<String> command, int port, Duration timeout) throws Exception {
+        Path log = Paths.get("target", "startup-" + mode + ".log");
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " exited with status " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(mode + " did not answer within " + timeout + ", see " + log);
+                }
+                try {
+                    // Any status counts: health is DOWN without a database, but the server is serving
+                    httpClient.send(probe, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                }
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new long[]{millis, residentKb(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long residentKb(long pid) throws IOException {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+}
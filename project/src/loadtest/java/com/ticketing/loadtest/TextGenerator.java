@@ -0,0 +1,77 @@
+package com.ticketing.loadtest;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Help desk style subjects, descriptions and comments. The topic vocabulary is shared with the workload driver so
+ * its searches hit real rows, and it is skewed the way real traffic is: a few topics account for most tickets.
+ */
+final class TextGenerator {
+
+    static final String[] TOPICS = {
+            "Printer", "VPN", "Password reset", "Laptop", "Email", "Wi-Fi", "Monitor", "Invoice", "Shared drive",
+            "Calendar", "Software license", "Phone", "Badge", "Database access", "Expense report", "Keyboard",
+            "Docking station", "Payroll", "Onboarding", "Backup"
+    };
+
+    private static final String[] PROBLEMS = {
+            "not working", "is slow", "keeps disconnecting", "request", "error on startup", "access denied",
+            "needs replacement", "question", "stopped syncing", "shows a warning"
+    };
+
+    private static final String[] SENTENCES = {
+            "It started this morning after the latest update.",
+            "Restarting did not help.",
+            "Several people on my team see the same thing.",
+            "I need this fixed before the end of the week.",
+            "The error message says to contact the administrator.",
+            "It worked fine yesterday.",
+            "This blocks me from finishing my current task.",
+            "I attached a screenshot of the error.",
+            "It only happens when I am connected from home.",
+            "Please let me know if you need more details."
+    };
+
+    private static final String[] REPLIES = {
+            "Thanks, I am looking into it now.",
+            "Could you try signing out and back in?",
+            "That did not help, the problem is still there.",
+            "We pushed a fix, please check again.",
+            "It works now, thank you!",
+            "Can you share the exact error message?",
+            "Escalated to the infrastructure team.",
+            "Still waiting on the vendor for a replacement."
+    };
+
+    private TextGenerator() {}
+
+    /** Picks an index in [0, size) with a power-law skew towards the start */
+    static int skewed(RandomGenerator random, int size) {
+        double u = random.nextDouble();
+        return Math.min(size - 1, (int) (u * u * u * size));
+    }
+
+    static String topic(RandomGenerator random) {
+        return TOPICS[skewed(random, TOPICS.length)];
+    }
+
+    static String subject(RandomGenerator random) {
+        return topic(random) + " " + PROBLEMS[random.nextInt(PROBLEMS.length)];
+    }
+
+    static String description(RandomGenerator random) {
+        int sentences = 2 + random.nextInt(4);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        return text.toString();
+    }
+
+    static String comment(RandomGenerator random) {
+        return REPLIES[random.nextInt(REPLIES.length)];
+    }
+}
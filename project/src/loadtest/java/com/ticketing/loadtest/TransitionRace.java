@@ -0,0 +1,245 @@
+package com.ticketing.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.loadtest.Sessions.Session;
+import com.ticketing.model.TicketStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Races many admins on the same few tickets, each changing status to a random target or reassigning to a random
+ * agent, and checks that no change is silently lost. Every successful response carries the ticket's version:
+ * <ul>
+ *   <li>two successes reporting the same version must report the same state, since a version is written once;</li>
+ *   <li>between two consecutive versions the status may only change as {@link TicketStatus#canMoveTo} allows;</li>
+ *   <li>at the end each ticket must read back as its highest reported version.</li>
+ * </ul>
+ * Conflicts (409) are expected and counted. The check creates its own tickets.
+ */
+final class TransitionRace {
+
+    private static final int MAX_EXAMPLES = 10;
+
+    private record State(String status, long assigneeId) {}
+
+    private final Options options;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong violations = new AtomicLong();
+    private final Queue<String> examples = new ConcurrentLinkedQueue<>();
+
+    TransitionRace(Options options) {
+        this.options = options.withDefaults(Map.of("user-sessions", "1", "agent-sessions", "0",
+                "admin-sessions", "4"));
+        this.baseUrl = this.options.string("base-url", "http://localhost:8080");
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /** Returns true when a change was lost or an invalid transition went through */
+    boolean run() throws Exception {
+        Sessions sessions = Sessions.signIn(options, httpClient, baseUrl);
+        if (sessions.users.isEmpty() || sessions.admins.isEmpty()) {
+            throw new IllegalStateException("The check needs at least one seeded user and one admin");
+        }
+        long[] agentIds = agentIds();
+        int ticketCount = options.integer("tickets", 5);
+        int writers = options.integer("writers", 32);
+        long durationNanos = options.duration("duration", "30s").toNanos();
+
+        List<Long> ticketIds = new ArrayList<>();
+        for (int i = 0; i < ticketCount; i++) {
+            String body = objectMapper.writeValueAsString(Map.of("subject", "Transition race " + i,
+                    "description", "Created by the transition race", "priority", "MEDIUM"));
+            JsonNode created = send(sessions.users.get(0), HttpRequest.newBuilder(URI.create(baseUrl + "/api/tickets"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            if (created == null) {
+                throw new IllegalStateException("Ticket creation was rate limited; run with admission control off");
+            }
+            ticketIds.add(created.path("id").asLong());
+        }
+        // Per ticket: version -> state reported by a successful write
+        List<ConcurrentMap<Long, State>> written = new ArrayList<>();
+        for (int i = 0; i < ticketCount; i++) {
+            written.add(new ConcurrentHashMap<>());
+        }
+
+        System.out.printf("Racing %d writers on %d tickets for %s%n",
+                writers, ticketCount, options.string("duration", "30s"));
+        long end = System.nanoTime() + durationNanos;
+        for (int w = 0; w < writers; w++) {
+            Session admin = sessions.admins.get(w % sessions.admins.size());
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    int index = random.nextInt(ticketCount);
+                    String path = random.nextBoolean()
+                            ? "/api/tickets/" + ticketIds.get(index) + "/assign?assigneeId="
+                                    + agentIds[random.nextInt(agentIds.length)]
+                            : "/api/tickets/" + ticketIds.get(index) + "/status?status="
+                                    + TicketStatus.values()[random.nextInt(TicketStatus.values().length)];
+                    if (!write(admin, ticketIds.get(index), path, written.get(index))) {
+                        return;
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+
+        for (int i = 0; i < ticketCount; i++) {
+            verify(sessions.admins.get(0), ticketIds.get(i), written.get(i));
+        }
+        System.out.printf("successes %d, conflicts %d, throttled %d, errors %d, violations %d%n",
+                successes.get(), conflicts.get(), throttled.get(), errors.get(), violations.get());
+        examples.forEach(example -> System.out.println("  " + example));
+        if (successes.get() == 0) {
+            throw new IllegalStateException("Nothing was checked; see the errors above");
+        }
+        return violations.get() > 0;
+    }
+
+    /** Returns false when the thread was interrupted */
+    private boolean write(Session admin, long ticketId, String path, ConcurrentMap<Long, State> written) {
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(30))
+                            .header("Authorization", "Bearer " + admin.token)
+                            .PUT(HttpRequest.BodyPublishers.noBody())
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            switch (response.statusCode()) {
+                case 200 -> {
+                    successes.incrementAndGet();
+                    JsonNode ticket = objectMapper.readTree(response.body());
+                    State state = state(ticket);
+                    State earlier = written.putIfAbsent(ticket.path("version").asLong(), state);
+                    if (earlier != null && !earlier.equals(state)) {
+                        violation("ticket " + ticketId + " version " + ticket.path("version").asLong()
+                                + " reported as both " + earlier + " and " + state);
+                    }
+                }
+                case 409 -> conflicts.incrementAndGet();
+                case 429, 503 -> {
+                    throttled.incrementAndGet();
+                    Thread.sleep(Duration.ofSeconds(response.headers().firstValueAsLong("Retry-After").orElse(1)));
+                }
+                default -> failed("HTTP " + response.statusCode() + ": " + response.body());
+            }
+            return true;
+        } catch (IOException e) {
+            failed(e.getMessage());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void verify(Session admin, long ticketId, ConcurrentMap<Long, State> written) throws Exception {
+        List<Long> versions = new ArrayList<>(written.keySet());
+        versions.sort(null);
+        for (int i = 1; i < versions.size(); i++) {
+            if (versions.get(i) != versions.get(i - 1) + 1) {
+                continue;
+            }
+            TicketStatus from = TicketStatus.valueOf(written.get(versions.get(i - 1)).status());
+            TicketStatus to = TicketStatus.valueOf(written.get(versions.get(i)).status());
+            if (from != to && !from.canMoveTo(to)) {
+                violation("ticket " + ticketId + " moved from " + from + " to " + to + " at version " + versions.get(i));
+            }
+        }
+        if (versions.isEmpty()) {
+            return;
+        }
+        JsonNode ticket = send(admin, HttpRequest.newBuilder(URI.create(baseUrl + "/api/tickets/" + ticketId))
+                .timeout(Duration.ofSeconds(30))
+                .GET());
+        long latest = versions.get(versions.size() - 1);
+        if (ticket != null && (ticket.path("version").asLong() != latest
+                || !state(ticket).equals(written.get(latest)))) {
+            violation("ticket " + ticketId + " reads as version " + ticket.path("version").asLong() + " "
+                    + state(ticket) + " after version " + latest + " " + written.get(latest) + " was written");
+        }
+    }
+
+    /** The response body, or null when the request was rate limited */
+    private JsonNode send(Session session, HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                request.header("Authorization", "Bearer " + session.token).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 429 || response.statusCode() == 503) {
+            throttled.incrementAndGet();
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static State state(JsonNode ticket) {
+        return new State(ticket.path("status").asText(), ticket.path("assignee").path("id").asLong());
+    }
+
+    private void violation(String example) {
+        violations.incrementAndGet();
+        if (examples.size() < MAX_EXAMPLES) {
+            examples.add(example);
+        }
+    }
+
+    private void failed(String message) {
+        if (errors.getAndIncrement() < MAX_EXAMPLES) {
+            System.out.println("write failed: " + message);
+        }
+    }
+
+    private long[] agentIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (Connection connection = DatasetSeeder.connect(options);
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id FROM users WHERE role = 'SUPPORT_AGENT' AND active ORDER BY id LIMIT 4")) {
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        if (ids.size() < 2) {
+            throw new IllegalStateException("The check needs two active support agents");
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,279 @@
+package com.ticketing.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.loadtest.Sessions.Session;
+import com.ticketing.model.Priority;
+import com.ticketing.model.TicketStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted mix of scenarios against a running instance at a fixed arrival rate. Scenarios start on schedule
+ * whether or not earlier ones have finished, and the first request of each is timed from its scheduled start, so a
+ * stalled server shows up in the percentiles instead of silently lowering the offered load.
+ */
+final class WorkloadDriver {
+
+    private static final String[] SORT_FIELDS = {"createdAt", "updatedAt", "priority", "status"};
+
+    private final Options options;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, AtomicLong> dropped = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private volatile LatencyReport report = new LatencyReport();
+
+    private Sessions sessions;
+
+    WorkloadDriver(Options options) {
+        this.options = options;
+        this.baseUrl = options.string("base-url", "http://localhost:8080");
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    void run() throws Exception {
+        sessions = Sessions.signIn(options, httpClient, baseUrl);
+
+        Map<String, Integer> mix = options.weights("mix",
+                "inbox=30,search=25,create=10,comments=15,dashboard=10,stream=10");
+        String[] scenarios = mix.keySet().toArray(new String[0]);
+        int[] cumulative = new int[scenarios.length];
+        int sum = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            sum += mix.get(scenarios[i]);
+            cumulative[i] = sum;
+            dropped.put(scenarios[i], new AtomicLong());
+        }
+
+        double rate = options.decimal("rate", 200);
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long warmupNanos = options.duration("warmup", "30s").toNanos();
+        long durationNanos = options.duration("duration", "5m").toNanos();
+        Semaphore inFlight = new Semaphore(options.integer("max-in-flight", 2000));
+
+        System.out.printf("Running %s at %.0f scenarios/s for %s after %s warm-up%n",
+                mix, rate, options.string("duration", "5m"), options.string("warmup", "30s"));
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        boolean measuring = warmupNanos == 0;
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!measuring && next >= measureFrom) {
+                report = new LatencyReport();
+                measuring = true;
+            }
+            int pick = ThreadLocalRandom.current().nextInt(sum);
+            int index = 0;
+            while (cumulative[index] <= pick) {
+                index++;
+            }
+            String scenario = scenarios[index];
+            long scheduled = next;
+            // Waiting here is part of the latency: the scheduled start is kept
+            inFlight.acquire();
+            executor.execute(() -> {
+                try {
+                    runScenario(scenario, scheduled);
+                } finally {
+                    inFlight.release();
+                }
+            });
+            next += intervalNanos;
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Map<String, Long> droppedCounts = new TreeMap<>();
+        dropped.forEach((scenario, count) -> droppedCounts.put(scenario, count.get()));
+        report.print(droppedCounts);
+        report.write(new File(options.string("report", "target/loadtest-report.json")));
+    }
+
+    private void runScenario(String scenario, long scheduled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            boolean ran = switch (scenario) {
+                case "inbox" -> inbox(Sessions.pick(sessions.agents), scheduled);
+                case "search" -> search(random.nextInt(5) == 0 ? Sessions.pick(sessions.admins) : Sessions.pick(sessions.users), scheduled);
+                case "create" -> create(Sessions.pick(sessions.users), scheduled);
+                case "comments" -> commentBurst(Sessions.pick(sessions.users), scheduled);
+                case "dashboard" -> dashboard(Sessions.pick(sessions.admins), scheduled);
+                case "stream" -> stream(Sessions.pick(sessions.users), scheduled);
+                default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+            };
+            if (!ran) {
+                dropped.get(scenario).incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** An agent polling the tickets assigned to them: ticket detail plus its comments */
+    private boolean inbox(Session agent, long scheduled) throws InterruptedException {
+        Long ticketId = agent != null ? agent.randomTicket() : null;
+        if (ticketId == null) {
+            return false;
+        }
+        send(agent, "GET /api/tickets/{id}", get("/api/tickets/" + ticketId), scheduled);
+        send(agent, "GET /api/tickets/{id}/comments", get("/api/tickets/" + ticketId + "/comments"), System.nanoTime());
+        return true;
+    }
+
+    /** Filtered, sorted list queries with the same shapes the UI sends */
+    private boolean search(Session session, long scheduled) throws InterruptedException {
+        if (session == null) {
+            return false;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder query = new StringBuilder("?page=").append(random.nextInt(3))
+                .append("&size=").append(random.nextBoolean() ? 10 : 20)
+                .append("&sortBy=").append(SORT_FIELDS[random.nextInt(SORT_FIELDS.length)])
+                .append("&sortDir=").append(random.nextBoolean() ? "desc" : "asc");
+        if (random.nextInt(3) > 0) {
+            query.append("&search=").append(encode(TextGenerator.topic(random).toLowerCase()));
+        }
+        if (random.nextBoolean()) {
+            query.append("&status=").append(TicketStatus.values()[random.nextInt(TicketStatus.values().length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            query.append("&priority=").append(Priority.values()[random.nextInt(Priority.values().length)]);
+        }
+        if (session.admin) {
+            send(session, "GET /api/admin/tickets", get("/api/admin/tickets" + query), scheduled);
+        } else {
+            send(session, "GET /api/tickets/my-tickets", get("/api/tickets/my-tickets" + query), scheduled);
+        }
+        return true;
+    }
+
+    private boolean create(Session user, long scheduled) throws InterruptedException {
+        if (user == null) {
+            return false;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = json(Map.of(
+                "subject", TextGenerator.subject(random),
+                "description", TextGenerator.description(random),
+                "priority", Priority.values()[TextGenerator.skewed(random, Priority.values().length)].name()));
+        JsonNode created = send(user, "POST /api/tickets", post("/api/tickets", body), scheduled);
+        if (created != null && created.hasNonNull("id")) {
+            user.ticketIds.add(created.get("id").asLong());
+        }
+        return true;
+    }
+
+    /** Several comments on one ticket in quick succession, like a live back-and-forth */
+    private boolean commentBurst(Session user, long scheduled) throws InterruptedException {
+        Long ticketId = user != null ? user.randomTicket() : null;
+        if (ticketId == null) {
+            return false;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int burst = 3 + random.nextInt(4);
+        long start = scheduled;
+        for (int i = 0; i < burst; i++) {
+            String body = json(Map.of("content", TextGenerator.comment(random), "internal", false));
+            send(user, "POST /api/tickets/{id}/comments",
+                    post("/api/tickets/" + ticketId + "/comments", body), start);
+            start = System.nanoTime();
+        }
+        return true;
+    }
+
+    private boolean dashboard(Session admin, long scheduled) throws InterruptedException {
+        if (admin == null) {
+            return false;
+        }
+        send(admin, "GET /api/admin/dashboard/stats", get("/api/admin/dashboard/stats"), scheduled);
+        send(admin, "GET /api/admin/tickets", get("/api/admin/tickets?page=0&size=20"), System.nanoTime());
+        return true;
+    }
+
+    private boolean stream(Session user, long scheduled) throws InterruptedException {
+        if (user == null) {
+            return false;
+        }
+        HttpRequest.Builder request = get("/api/v2/tickets/my-tickets?limit=100")
+                .header("Accept", "application/x-ndjson");
+        send(user, "GET /api/v2/tickets/my-tickets", request, scheduled);
+        return true;
+    }
+
+    /**
+     * Sends the request, records its latency from {@code startNanos} and returns the parsed body of a successful JSON
+     * response, or null.
+     */
+    private JsonNode send(Session session, String endpoint, HttpRequest.Builder request, long startNanos)
+            throws InterruptedException {
+        boolean error = true;
+        JsonNode body = null;
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    request.header("Authorization", "Bearer " + session.token).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            error = response.statusCode() >= 400;
+            if (!error && endpoint.startsWith("POST")) {
+                body = objectMapper.readTree(response.body());
+            }
+        } catch (IOException e) {
+            // Timeouts and resets count as errors with the time they took
+        } finally {
+            report.record(endpoint, System.nanoTime() - startNanos, error);
+        }
+        return body;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
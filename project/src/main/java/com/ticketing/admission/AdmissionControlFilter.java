@@ -0,0 +1,239 @@
+package com.ticketing.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rate limiting and load shedding, placed in the security chain right after {@code AuthTokenFilter} so the caller
+ * is known. Rejections happen before any controller or database work.
+ *
+ * <ul>
+ *   <li>Token buckets: one per principal, with a larger allowance for ADMIN and SUPPORT_AGENT; one per client IP
+ *       for unauthenticated requests; and a strict one per IP for {@code /api/auth/**}, where every sign-in costs a
+ *       bcrypt hash. An empty bucket answers 429 with {@code Retry-After} set to when the next token arrives.</li>
+ *   <li>Priority classes: standard traffic (USER and anonymous) may fill only {@code standard-share} of
+ *       {@code max-concurrent} in-flight requests, and is shed while {@code shed-pending} threads are already
+ *       waiting for a database connection. Privileged traffic may use the rest, so staff keep working while users
+ *       saturate the service. Shed requests get 503 with {@code Retry-After} taken from the recent maximum Hikari
+ *       connection wait.</li>
+ * </ul>
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final char PRINCIPAL = 'p';
+    private static final char CLIENT_IP = 'i';
+    private static final char SIGN_IN = 'a';
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private enum Reason {
+        PRINCIPAL_RATE(HttpStatus.TOO_MANY_REQUESTS, "Too many requests for this account"),
+        IP_RATE(HttpStatus.TOO_MANY_REQUESTS, "Too many requests from this address"),
+        AUTH_RATE(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts from this address"),
+        CONCURRENCY(HttpStatus.SERVICE_UNAVAILABLE, "Server is at capacity"),
+        DATABASE(HttpStatus.SERVICE_UNAVAILABLE, "Server is at capacity");
+
+        private final HttpStatus status;
+        private final String message;
+
+        Reason(HttpStatus status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+
+    private final boolean enabled;
+    private final double principalRate;
+    private final double principalBurst;
+    private final double privilegedRate;
+    private final double privilegedBurst;
+    private final double ipRate;
+    private final double ipBurst;
+    private final double authRate;
+    private final double authBurst;
+    private final int maxConcurrent;
+    private final int standardConcurrent;
+    private final int shedPending;
+    private final TokenBucketTable buckets;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter[][] rejected = new Counter[Reason.values().length][2];
+    private volatile HikariPoolMXBean pool;
+    private volatile Timer acquireTimer;
+
+    public AdmissionControlFilter(@Value("${admission.enabled}") boolean enabled,
+                                  @Value("${admission.principal-rate}") double principalRate,
+                                  @Value("${admission.principal-burst}") double principalBurst,
+                                  @Value("${admission.privileged-rate}") double privilegedRate,
+                                  @Value("${admission.privileged-burst}") double privilegedBurst,
+                                  @Value("${admission.ip-rate}") double ipRate,
+                                  @Value("${admission.ip-burst}") double ipBurst,
+                                  @Value("${admission.auth-rate}") double authRate,
+                                  @Value("${admission.auth-burst}") double authBurst,
+                                  @Value("${admission.max-concurrent}") int maxConcurrent,
+                                  @Value("${admission.standard-share}") double standardShare,
+                                  @Value("${admission.shed-pending}") int shedPending,
+                                  @Value("${admission.buckets}") int bucketCount,
+                                  DataSource dataSource,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.principalRate = principalRate;
+        this.principalBurst = principalBurst;
+        this.privilegedRate = privilegedRate;
+        this.privilegedBurst = privilegedBurst;
+        this.ipRate = ipRate;
+        this.ipBurst = ipBurst;
+        this.authRate = authRate;
+        this.authBurst = authBurst;
+        this.maxConcurrent = maxConcurrent;
+        this.standardConcurrent = Math.max(1, (int) (maxConcurrent * standardShare));
+        this.shedPending = shedPending;
+        this.buckets = new TokenBucketTable(64, bucketCount / 64);
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+
+        for (Reason reason : Reason.values()) {
+            for (int privileged = 0; privileged < 2; privileged++) {
+                rejected[reason.ordinal()][privileged] = Counter.builder("http.server.requests.rejected")
+                        .tag("reason", reason.name().toLowerCase())
+                        .tag("class", privileged == 1 ? "privileged" : "standard")
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("http.server.requests.admitted.active", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Probes must answer even when the service is shedding load
+        return !enabled || request.getRequestURI().startsWith("/actuator/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null && authentication.getPrincipal() instanceof UserDetails user
+                ? user.getUsername() : null;
+        boolean privileged = username != null && isPrivileged(authentication);
+        long now = System.nanoTime();
+
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            long wait = buckets.tryAcquire(TokenBucketTable.key(SIGN_IN, request.getRemoteAddr()),
+                    authRate, authBurst, now);
+            if (wait > 0) {
+                reject(request, response, Reason.AUTH_RATE, privileged, seconds(wait));
+                return;
+            }
+        }
+        long wait = username != null
+                ? buckets.tryAcquire(TokenBucketTable.key(PRINCIPAL, username),
+                        privileged ? privilegedRate : principalRate, privileged ? privilegedBurst : principalBurst, now)
+                : buckets.tryAcquire(TokenBucketTable.key(CLIENT_IP, request.getRemoteAddr()), ipRate, ipBurst, now);
+        if (wait > 0) {
+            reject(request, response, username != null ? Reason.PRINCIPAL_RATE : Reason.IP_RATE, privileged,
+                    seconds(wait));
+            return;
+        }
+
+        if (!privileged && pendingConnections() >= shedPending) {
+            reject(request, response, Reason.DATABASE, false, connectionWaitSeconds());
+            return;
+        }
+        if (inFlight.incrementAndGet() > (privileged ? maxConcurrent : standardConcurrent)) {
+            inFlight.decrementAndGet();
+            reject(request, response, Reason.CONCURRENCY, privileged, connectionWaitSeconds());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Reason reason, boolean privileged,
+                        long retryAfterSeconds) throws IOException {
+        rejected[reason.ordinal()][privileged ? 1 : 0].increment();
+        response.setStatus(reason.status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", reason.status.value());
+        body.put("error", reason.status.getReasonPhrase());
+        body.put("message", reason.message);
+        body.put("path", request.getServletPath());
+        OBJECT_MAPPER.writeValue(response.getOutputStream(), body);
+    }
+
+    private static boolean isPrivileged(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String role = authority.getAuthority();
+            if (role.equals("ROLE_ADMIN") || role.equals("ROLE_SUPPORT_AGENT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int pendingConnections() {
+        HikariPoolMXBean hikari = pool;
+        if (hikari == null) {
+            // Hikari creates its pool on the first connection request
+            try {
+                if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                    hikari = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                    pool = hikari;
+                }
+            } catch (SQLException e) {
+                return 0;
+            }
+        }
+        return hikari != null ? hikari.getThreadsAwaitingConnection() : 0;
+    }
+
+    /** The longest recent wait for a pooled connection, rounded up to whole seconds */
+    private long connectionWaitSeconds() {
+        Timer timer = acquireTimer;
+        if (timer == null) {
+            timer = meterRegistry.find("hikaricp.connections.acquire").timer();
+            acquireTimer = timer;
+        }
+        return timer != null ? Math.max(1, (long) Math.ceil(timer.max(TimeUnit.SECONDS))) : 1;
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ticketing.admission;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets keyed by a 64-bit hash, in a fixed-size table of lock stripes. Each stripe keeps its buckets in
+ * parallel primitive arrays with short linear probing, so a lookup allocates nothing and the table never grows.
+ * When a probe window is full the bucket idle the longest is evicted; an evicted client starts again with a full
+ * bucket, which is what an idle bucket would have refilled to anyway.
+ *
+ * Stripes use {@link ReentrantLock} rather than {@code synchronized}, which would pin virtual threads.
+ */
+final class TokenBucketTable {
+
+    private static final int PROBE_LIMIT = 8;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /** Both sizes are rounded up to powers of two */
+    TokenBucketTable(int stripeCount, int slotsPerStripe) {
+        int stripeSize = powerOfTwo(stripeCount);
+        int slots = Math.max(PROBE_LIMIT, powerOfTwo(slotsPerStripe));
+        this.stripes = new Stripe[stripeSize];
+        for (int i = 0; i < stripeSize; i++) {
+            stripes[i] = new Stripe(slots);
+        }
+        this.stripeMask = stripeSize - 1;
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key}, creating it full if absent.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryAcquire(long key, double ratePerSecond, double burst, long nowNanos) {
+        long hash = mix(key);
+        Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+        stripe.lock.lock();
+        try {
+            return stripe.tryAcquire(key == 0 ? 1 : key, (int) hash, ratePerSecond, burst, nowNanos);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /** FNV-1a over a kind marker and the characters of {@code value}, without allocating */
+    static long key(char kind, String value) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ kind) * 0x100000001b3L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] keys;
+        private final long[] updatedNanos;
+        private final double[] tokens;
+        private final int mask;
+
+        Stripe(int slots) {
+            this.keys = new long[slots];
+            this.updatedNanos = new long[slots];
+            this.tokens = new double[slots];
+            this.mask = slots - 1;
+        }
+
+        long tryAcquire(long key, int hash, double rate, double burst, long now) {
+            int slot = -1;
+            int free = -1;
+            int stalest = -1;
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int index = (hash + i) & mask;
+                if (keys[index] == key) {
+                    slot = index;
+                    break;
+                }
+                if (keys[index] == 0) {
+                    if (free < 0) {
+                        free = index;
+                    }
+                } else if (stalest < 0 || updatedNanos[index] - updatedNanos[stalest] < 0) {
+                    stalest = index;
+                }
+            }
+            if (slot < 0) {
+                slot = free >= 0 ? free : stalest;
+                keys[slot] = key;
+                tokens[slot] = burst;
+                updatedNanos[slot] = now;
+            }
+
+            double refill = Math.max(0, now - updatedNanos[slot]) * rate / NANOS_PER_SECOND;
+            double available = Math.min(burst, tokens[slot] + refill);
+            updatedNanos[slot] = now;
+            if (available >= 1) {
+                tokens[slot] = available - 1;
+                return 0;
+            }
+            tokens[slot] = available;
+            return (long) Math.ceil((1 - available) / rate * NANOS_PER_SECOND);
+        }
+    }
+}
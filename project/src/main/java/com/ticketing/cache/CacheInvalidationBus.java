@@ -0,0 +1,366 @@
+package com.ticketing.cache;
+
+import com.ticketing.model.Attachment;
+import com.ticketing.model.Comment;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the second-level caches of several instances consistent through Postgres {@code LISTEN/NOTIFY}, without a
+ * separate broker.
+ *
+ * Committed writes of cached entities become short entries (see {@link InvalidationMessage}). A publisher thread
+ * collects them for {@code batch-window}, so a burst of writes goes out as one notification, and sends them with
+ * {@code pg_notify} on a pooled connection. A listener thread holds one dedicated, unpooled connection on
+ * {@code LISTEN} and evicts what other nodes report.
+ *
+ * Notifications are not durable, so the receiver flushes its whole cache whenever it may have missed one:
+ * <ul>
+ *   <li>a gap in a node's sequence numbers, which is also how a failed send on the other side shows up;</li>
+ *   <li>a heartbeat announcing a sequence it never received;</li>
+ *   <li>every (re)connection of the listener;</li>
+ *   <li>an overflowing publish queue on the sender, which then sends a flush instead of the entries.</li>
+ * </ul>
+ */
+@Component
+public class CacheInvalidationBus implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    /** Peers unheard of for this long are forgotten, as they have most likely been shut down */
+    private static final Duration PEER_EXPIRY = Duration.ofHours(1);
+
+    private final boolean enabled;
+    private final String channel;
+    private final Duration batchWindow;
+    private final Duration heartbeatInterval;
+    private final Duration reconnectDelay;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final DataSource dataSource;
+    private final Cache cache;
+    private final String node = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+    private final BlockingQueue<String> pending;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final Map<String, Peer> peers = new HashMap<>();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter publishFailures;
+    private final MeterRegistry meterRegistry;
+    private final Thread publisherThread;
+    private final Thread listenerThread;
+    private long sequence;
+    private long connectedAtNanos;
+    private volatile boolean running = true;
+
+    public CacheInvalidationBus(@Value("${cache-invalidation.enabled}") boolean enabled,
+                                @Value("${cache-invalidation.channel}") String channel,
+                                @Value("${cache-invalidation.batch-window}") Duration batchWindow,
+                                @Value("${cache-invalidation.heartbeat-interval}") Duration heartbeatInterval,
+                                @Value("${cache-invalidation.reconnect-delay}") Duration reconnectDelay,
+                                @Value("${cache-invalidation.queue-capacity}") int queueCapacity,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username}") String username,
+                                @Value("${spring.datasource.password}") String password,
+                                DataSource dataSource,
+                                EntityManagerFactory entityManagerFactory,
+                                MeterRegistry meterRegistry) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("cache-invalidation.channel must be a plain identifier: " + channel);
+        }
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.enabled = enabled && sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+        this.channel = channel;
+        this.batchWindow = batchWindow;
+        this.heartbeatInterval = heartbeatInterval;
+        this.reconnectDelay = reconnectDelay;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.dataSource = dataSource;
+        this.cache = sessionFactory.getCache();
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.meterRegistry = meterRegistry;
+        this.sent = Counter.builder("cache.invalidation.messages").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.messages").tag("direction", "received")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("cache.invalidation.publish.failed").register(meterRegistry);
+
+        if (!this.enabled) {
+            this.publisherThread = null;
+            this.listenerThread = null;
+            return;
+        }
+        EntityChangeListener listener = new EntityChangeListener(this::publish);
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+
+        this.publisherThread = new Thread(this::publishLoop, "cache-invalidation-publisher");
+        this.publisherThread.setDaemon(true);
+        this.publisherThread.start();
+        this.listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+        logger.info("Cache invalidation on channel {} as node {}", channel, node);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+            listenerThread.interrupt();
+            publisherThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Tells other nodes about an attachment changed by a committed bulk update, which the entity listeners do not
+     * see. This node's copy is already gone, as Hibernate drops the region on a bulk update.
+     */
+    public void attachmentChanged(long attachmentId, long ticketId) {
+        if (enabled) {
+            publish("A" + attachmentId + "." + ticketId);
+        }
+    }
+
+    /** Queues an entry for the next batch; called on the committing thread, so it never blocks */
+    void publish(String entry) {
+        if (!pending.offer(entry)) {
+            overflowed.set(true);
+        }
+    }
+
+    private void publishLoop() {
+        while (running) {
+            Set<String> batch = new LinkedHashSet<>();
+            try {
+                String first = pending.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    send(List.of());
+                    continue;
+                }
+                batch.add(first);
+                // Let the rest of a burst arrive, then send it as one batch
+                Thread.sleep(batchWindow);
+            } catch (InterruptedException e) {
+                // Shutting down: send what is queued without waiting for more
+                running = false;
+            }
+            sendBatch(batch);
+        }
+        sendBatch(new LinkedHashSet<>());
+    }
+
+    private void sendBatch(Set<String> batch) {
+        pending.drainTo(batch);
+        if (overflowed.getAndSet(false)) {
+            batch = Set.of(InvalidationMessage.FLUSH_ALL);
+        }
+        // Header is node:sequence: with a sequence of up to 19 digits
+        for (List<String> entries : InvalidationMessage.split(batch, node.length() + 21)) {
+            send(entries);
+        }
+    }
+
+    private void send(List<String> entries) {
+        // A failed send still uses up its sequence number, so receivers see the gap and flush
+        long messageSequence = entries.isEmpty() ? sequence : ++sequence;
+        String payload = new InvalidationMessage(node, messageSequence, entries).encode();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            sent.increment();
+        } catch (SQLException e) {
+            publishFailures.increment();
+            logger.warn("Could not publish cache invalidation {}: {}", messageSequence, e.getMessage());
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // Whatever was sent while this node was not listening is lost
+                connectedAtNanos = System.nanoTime();
+                peers.clear();
+                flush("reconnect");
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications =
+                            pgConnection.getNotifications((int) heartbeatInterval.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        receive(notifications);
+                    }
+                    expirePeers();
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Cache invalidation listener lost its connection, retrying in {}: {}",
+                            reconnectDelay, e.getMessage());
+                    try {
+                        Thread.sleep(reconnectDelay);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Applies one batch of notifications, evicting each entry once */
+    private void receive(PGNotification[] notifications) {
+        Set<String> evictions = new HashSet<>();
+        String flushReason = null;
+        for (PGNotification notification : notifications) {
+            InvalidationMessage message;
+            try {
+                message = InvalidationMessage.parse(notification.getParameter());
+            } catch (IllegalArgumentException e) {
+                flushReason = "unreadable";
+                continue;
+            }
+            if (message.node().equals(node)) {
+                continue;
+            }
+            received.increment();
+            String gap = track(message);
+            if (gap != null) {
+                flushReason = gap;
+            }
+            evictions.addAll(message.entries());
+        }
+
+        if (flushReason == null && evictions.contains(InvalidationMessage.FLUSH_ALL)) {
+            flushReason = "requested";
+        }
+        if (flushReason != null) {
+            flush(flushReason);
+            return;
+        }
+        for (String entry : evictions) {
+            try {
+                evict(entry);
+            } catch (RuntimeException e) {
+                flush("unreadable");
+                return;
+            }
+        }
+    }
+
+    /** Records the message's sequence; returns why the cache must be flushed, or null */
+    private String track(InvalidationMessage message) {
+        Peer peer = peers.get(message.node());
+        // A heartbeat repeats the last sequence, anything else must be the next one
+        long initial = message.entries().isEmpty() ? 0 : 1;
+        if (peer == null) {
+            peers.put(message.node(), new Peer(message.sequence(), System.nanoTime()));
+            // Nodes already running when this one connected are mid-sequence; later newcomers start from 1
+            boolean listeningSinceBefore = System.nanoTime() - connectedAtNanos > 2 * heartbeatInterval.toNanos();
+            return listeningSinceBefore && message.sequence() > initial ? "unknown-node" : null;
+        }
+        long expected = peer.sequence + initial;
+        peer.sequence = Math.max(peer.sequence, message.sequence());
+        peer.lastSeenNanos = System.nanoTime();
+        return message.sequence() > expected ? "gap" : null;
+    }
+
+    private void evict(String entry) {
+        long id;
+        switch (entry.charAt(0)) {
+            case 'T' -> {
+                id = Long.parseLong(entry.substring(1));
+                cache.evictEntityData(Ticket.class, id);
+                cache.evictCollectionData(Ticket.class.getName() + ".comments", id);
+                cache.evictCollectionData(Ticket.class.getName() + ".attachments", id);
+            }
+            case 'U' -> cache.evictEntityData(User.class, Long.parseLong(entry.substring(1)));
+            case 'D' -> {
+                cache.evictEntityData(User.class, Long.parseLong(entry.substring(1)));
+                cache.evictNaturalIdData(User.class);
+            }
+            case 'C' -> evictChild(entry, Comment.class, "comments");
+            case 'A' -> evictChild(entry, Attachment.class, "attachments");
+            default -> throw new IllegalArgumentException("Unknown invalidation entry " + entry);
+        }
+    }
+
+    private void evictChild(String entry, Class<?> type, String collection) {
+        int dot = entry.indexOf('.');
+        cache.evictEntityData(type, Long.parseLong(entry.substring(1, dot)));
+        cache.evictCollectionData(Ticket.class.getName() + "." + collection, Long.parseLong(entry.substring(dot + 1)));
+    }
+
+    private void flush(String reason) {
+        cache.evictAllRegions();
+        meterRegistry.counter("cache.invalidation.flushes", "reason", reason).increment();
+        logger.info("Flushed the second-level cache: {}", reason);
+    }
+
+    private void expirePeers() {
+        long now = System.nanoTime();
+        for (Iterator<Peer> iterator = peers.values().iterator(); iterator.hasNext(); ) {
+            if (now - iterator.next().lastSeenNanos > PEER_EXPIRY.toNanos()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Peer {
+        private long sequence;
+        private long lastSeenNanos;
+
+        private Peer(long sequence, long lastSeenNanos) {
+            this.sequence = sequence;
+            this.lastSeenNanos = lastSeenNanos;
+        }
+    }
+}
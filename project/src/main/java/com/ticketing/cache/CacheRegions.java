@@ -0,0 +1,23 @@
+package com.ticketing.cache;
+
+import java.util.List;
+
+/**
+ * Second-level cache region names, shared by the entity mappings and {@link SecondLevelCacheConfig}.
+ */
+public final class CacheRegions {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+    public static final String TICKETS = "tickets";
+    public static final String TICKET_COMMENTS = "ticket-comments";
+    public static final String TICKET_ATTACHMENTS = "ticket-attachments";
+    public static final String COMMENTS = "comments";
+    public static final String ATTACHMENTS = "attachments";
+
+    public static final List<String> ALL = List.of(
+            USERS, USERS_BY_USERNAME, TICKETS, TICKET_COMMENTS, TICKET_ATTACHMENTS, COMMENTS, ATTACHMENTS);
+
+    private CacheRegions() {
+    }
+}
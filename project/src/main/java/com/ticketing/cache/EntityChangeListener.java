@@ -0,0 +1,75 @@
+package com.ticketing.cache;
+
+import com.ticketing.model.Attachment;
+import com.ticketing.model.Comment;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.User;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.function.Consumer;
+
+/**
+ * Turns committed writes of cached entities into invalidation entries for other nodes. Hibernate already keeps
+ * this node's cache right. Inserts only matter for comments and attachments, which extend a cached list.
+ */
+final class EntityChangeListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final Consumer<String> publisher;
+
+    EntityChangeListener(Consumer<String> publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Comment || event.getEntity() instanceof Attachment) {
+            publish(event.getEntity(), event.getId(), false);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getEntity(), event.getId(), false);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getEntity(), event.getId(), true);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void publish(Object entity, Object id, boolean deleted) {
+        String entry = switch (entity) {
+            case Ticket ticket -> "T" + id;
+            case User user -> (deleted ? "D" : "U") + id;
+            case Comment comment -> "C" + id + "." + comment.getTicket().getId();
+            case Attachment attachment -> "A" + id + "." + attachment.getTicket().getId();
+            // A cached type this listener does not know; play safe
+            default -> InvalidationMessage.FLUSH_ALL;
+        };
+        publisher.accept(entry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ticketing.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Payload of one invalidation notification: {@code node:sequence:entry,entry,...}.
+ *
+ * <pre>
+ * T12     ticket 12, with its comment and attachment lists
+ * U7      user 7
+ * D7      user 7 was deleted, so its username mapping goes too
+ * C40.12  comment 40 on ticket 12, with the ticket's comment list
+ * A41.12  attachment 41 on ticket 12, with the ticket's attachment list
+ * *       everything
+ * </pre>
+ *
+ * Sequences count a node's messages from 1. A heartbeat has no entries and repeats the last sequence sent, so a
+ * receiver can tell it missed the node's latest message even when nothing else follows.
+ */
+record InvalidationMessage(String node, long sequence, List<String> entries) {
+
+    static final String FLUSH_ALL = "*";
+
+    /** NOTIFY payloads must stay under 8000 bytes; entries are ASCII */
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    String encode() {
+        return node + ':' + sequence + ':' + String.join(",", entries);
+    }
+
+    static InvalidationMessage parse(String payload) {
+        int first = payload.indexOf(':');
+        int second = payload.indexOf(':', first + 1);
+        if (first <= 0 || second < 0) {
+            throw new IllegalArgumentException("Malformed invalidation message: " + payload);
+        }
+        String entries = payload.substring(second + 1);
+        return new InvalidationMessage(payload.substring(0, first),
+                Long.parseLong(payload.substring(first + 1, second)),
+                entries.isEmpty() ? List.of() : List.of(entries.split(",")));
+    }
+
+    /** Splits entries into groups that each fit in one payload */
+    static List<List<String>> split(Collection<String> entries, int headerLength) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        int length = headerLength;
+        for (String entry : entries) {
+            if (!group.isEmpty() && length + entry.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                groups.add(group);
+                group = new ArrayList<>();
+                length = headerLength;
+            }
+            group.add(entry);
+            length += entry.length() + 1;
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ticketing.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache on an in-process Caffeine JCache provider. Every region is created here with its
+ * own size and expiry, and Hibernate is told to fail rather than create a region this class does not know about.
+ *
+ * Users are read on every request and rarely written, so they use nonstrict read-write: the entry is dropped after
+ * a write commits and never locked. Tickets and what hangs off them are written concurrently by agents and use
+ * read-write, where a write soft-locks the entry until commit so no transaction can read or re-cache the old state.
+ * Expiry is a safety net for writes that bypass Hibernate, such as manual SQL.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private final boolean enabled;
+
+    public SecondLevelCacheConfig(@Value("${second-level-cache.enabled}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${second-level-cache.users.max-entries}") long userEntries,
+            @Value("${second-level-cache.users.expire-after-write}") Duration userExpiry,
+            @Value("${second-level-cache.tickets.max-entries}") long ticketEntries,
+            @Value("${second-level-cache.tickets.expire-after-write}") Duration ticketExpiry,
+            @Value("${second-level-cache.ticket-details.max-entries}") long detailEntries,
+            @Value("${second-level-cache.ticket-details.expire-after-write}") Duration detailExpiry) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        createRegion(cacheManager, CacheRegions.USERS, userEntries, userExpiry);
+        createRegion(cacheManager, CacheRegions.USERS_BY_USERNAME, userEntries, userExpiry);
+        createRegion(cacheManager, CacheRegions.TICKETS, ticketEntries, ticketExpiry);
+        createRegion(cacheManager, CacheRegions.TICKET_COMMENTS, ticketEntries, detailExpiry);
+        createRegion(cacheManager, CacheRegions.TICKET_ATTACHMENTS, ticketEntries, detailExpiry);
+        createRegion(cacheManager, CacheRegions.COMMENTS, detailEntries, detailExpiry);
+        createRegion(cacheManager, CacheRegions.ATTACHMENTS, detailEntries, detailExpiry);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            if (!enabled) {
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Comments and attachments are saved from their own side, which would leave the ticket's cached
+            // collections without them
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maxEntries, Duration expiry) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(expiry.toNanos()));
+        // Hibernate stores disassembled, immutable entries, so copying them on every get and put buys nothing
+        configuration.setStoreByValue(false);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,210 @@
+package com.ticketing.capture;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of capture files.
+ *
+ * <pre>
+ * header: int magic "TCAP", byte version, varlong start timestamp (epoch micros)
+ * record: varlong micros since previous record, varint latency micros, varint status,
+ *         str role, str method, str pattern, str path, varint parameter count, (str name, str value)*
+ * str:    varint 0 followed by modified UTF-8 for a string seen for the first time, else varint index + 1
+ * </pre>
+ *
+ * Endpoints, roles, parameter names and most values repeat constantly, so after warm-up a typical record is a dozen
+ * bytes. The dictionary stops growing at {@link #MAX_DICTIONARY_SIZE}; later new strings are written inline.
+ */
+public final class CaptureLog {
+
+    static final int MAGIC = 0x54434150;
+    static final byte VERSION = 1;
+    static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private CaptureLog() {}
+
+    public static Writer writer(OutputStream out, long startMicros) throws IOException {
+        return new Writer(out, startMicros);
+    }
+
+    public static Reader reader(InputStream in) throws IOException {
+        return new Reader(in);
+    }
+
+    public static final class Writer implements Closeable {
+        private final CountingOutputStream counter;
+        private final DataOutputStream out;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private long previousMicros;
+
+        private Writer(OutputStream out, long startMicros) throws IOException {
+            this.counter = new CountingOutputStream(new BufferedOutputStream(out, 64 * 1024));
+            this.out = new DataOutputStream(counter);
+            this.out.writeInt(MAGIC);
+            this.out.writeByte(VERSION);
+            writeVarLong(startMicros);
+            this.previousMicros = startMicros;
+        }
+
+        public void write(CapturedRequest request) throws IOException {
+            writeVarLong(Math.max(0, request.getTimestampMicros() - previousMicros));
+            previousMicros = Math.max(previousMicros, request.getTimestampMicros());
+            writeVarLong(request.getLatencyMicros());
+            writeVarLong(request.getStatus());
+            writeString(request.getRole());
+            writeString(request.getMethod());
+            writeString(request.getPattern());
+            writeString(request.getPath());
+            writeVarLong(request.getParameters().size());
+            for (String[] parameter : request.getParameters()) {
+                writeString(parameter[0]);
+                writeString(parameter[1]);
+            }
+        }
+
+        /** Bytes handed to the stream so far, including what is still buffered */
+        public long size() {
+            return counter.count;
+        }
+
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                writeVarLong(index + 1L);
+                return;
+            }
+            writeVarLong(0);
+            out.writeUTF(value);
+            if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+                dictionary.put(value, dictionary.size());
+            }
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+    }
+
+    // DataOutputStream.size() is an int and wraps on long captures
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final List<String> dictionary = new ArrayList<>();
+        private final long startMicros;
+        private long previousMicros;
+
+        private Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+            if (this.in.readInt() != MAGIC) {
+                throw new IOException("Not a capture file");
+            }
+            int version = this.in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported capture file version " + version);
+            }
+            this.startMicros = readVarLong();
+            this.previousMicros = startMicros;
+        }
+
+        public long getStartMicros() {
+            return startMicros;
+        }
+
+        /** Returns the next record, or null at the end of the file */
+        public CapturedRequest read() throws IOException {
+            long delta;
+            try {
+                delta = readVarLong();
+            } catch (EOFException e) {
+                return null;
+            }
+            previousMicros += delta;
+            int latency = (int) readVarLong();
+            int status = (int) readVarLong();
+            String role = readString();
+            String method = readString();
+            String pattern = readString();
+            String path = readString();
+            int count = (int) readVarLong();
+            List<String[]> parameters = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                parameters.add(new String[]{readString(), readString()});
+            }
+            return new CapturedRequest(previousMicros, latency, status, role, method, pattern, path, parameters);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private String readString() throws IOException {
+            long reference = readVarLong();
+            if (reference > 0) {
+                return dictionary.get((int) (reference - 1));
+            }
+            String value = in.readUTF();
+            if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+                dictionary.add(value);
+            }
+            return value;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ticketing.capture;
+
+import java.util.List;
+
+/**
+ * The sanitized shape of one request: which endpoint, with which parameters, by which role, and how long it took.
+ * Free-text parameter values are replaced by a salted hash token before they get here.
+ */
+public class CapturedRequest {
+
+    private final long timestampMicros;
+    private final int latencyMicros;
+    private final int status;
+    private final String role;
+    private final String method;
+    private final String pattern;
+    private final String path;
+    private final List<String[]> parameters;
+
+    public CapturedRequest(long timestampMicros, int latencyMicros, int status, String role, String method,
+                           String pattern, String path, List<String[]> parameters) {
+        this.timestampMicros = timestampMicros;
+        this.latencyMicros = latencyMicros;
+        this.status = status;
+        this.role = role;
+        this.method = method;
+        this.pattern = pattern;
+        this.path = path;
+        this.parameters = parameters;
+    }
+
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    public int getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    // Handler mapping pattern such as /api/tickets/{id}, or the path when no handler matched
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // Name/value pairs in request order; repeated names appear once per value
+    public List<String[]> getParameters() {
+        return parameters;
+    }
+}
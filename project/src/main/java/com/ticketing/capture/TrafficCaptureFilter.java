@@ -0,0 +1,213 @@
+package com.ticketing.capture;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Opt-in recorder of request shapes for later replay. Runs after Spring Security, so the caller's role is known,
+ * and hands records to a background writer through a bounded queue; when the queue is full records are dropped
+ * rather than slowing requests down.
+ *
+ * Parameter names are kept. Values are kept only when they look like enum constants, numbers or field names;
+ * free-text parameters and anything else become a salted hash token, so repeated searches stay recognizable without
+ * the text leaving the server.
+ */
+@Component
+@ConditionalOnProperty(name = "capture.enabled", havingValue = "true")
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficCaptureFilter.class);
+
+    public static final String HASH_PREFIX = "~";
+
+    private static final Pattern SAFE_VALUE = Pattern.compile("[A-Za-z0-9_.,-]{1,32}");
+
+    private final String pathPrefix;
+    private final Set<String> methods;
+    private final Set<String> freeTextParameters;
+    private final double sampleRate;
+    private final long maxBytes;
+    private final SecretKeySpec hashKey;
+    private final BlockingQueue<CapturedRequest> queue;
+    private final Counter droppedCounter;
+    private final Thread writerThread;
+    private final Path file;
+    private volatile boolean running = true;
+
+    public TrafficCaptureFilter(@Value("${capture.dir}") String dir,
+                                @Value("${capture.path-prefix}") String pathPrefix,
+                                @Value("${capture.methods}") Set<String> methods,
+                                @Value("${capture.free-text-params}") Set<String> freeTextParameters,
+                                @Value("${capture.sample-rate}") double sampleRate,
+                                @Value("${capture.max-size}") DataSize maxSize,
+                                @Value("${capture.queue-capacity}") int queueCapacity,
+                                @Value("${capture.salt:}") String salt,
+                                MeterRegistry meterRegistry) throws IOException {
+        this.pathPrefix = pathPrefix;
+        this.methods = methods;
+        this.freeTextParameters = freeTextParameters;
+        this.sampleRate = sampleRate;
+        this.maxBytes = maxSize.toBytes();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.droppedCounter = Counter.builder("capture.records.dropped").register(meterRegistry);
+
+        // Without a configured salt, hashes only need to match within this capture
+        byte[] key = salt.isEmpty() ? new byte[32] : salt.getBytes(StandardCharsets.UTF_8);
+        if (salt.isEmpty()) {
+            new SecureRandom().nextBytes(key);
+        }
+        this.hashKey = new SecretKeySpec(key, "HmacSHA256");
+
+        Path directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        this.file = directory.resolve("capture-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".tcap");
+        this.writerThread = new Thread(this::drain, "traffic-capture");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Capturing {} requests under {} to {}", methods, pathPrefix, file);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !running
+                || !methods.contains(request.getMethod())
+                || !request.getRequestURI().startsWith(pathPrefix)
+                || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startMicros = currentMicros();
+        long startNanos = System.nanoTime();
+        String role = roleOf(SecurityContextHolder.getContext().getAuthentication());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int latencyMicros = (int) Math.min(Integer.MAX_VALUE, (System.nanoTime() - startNanos) / 1000);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            CapturedRequest captured = new CapturedRequest(startMicros, latencyMicros, response.getStatus(), role,
+                    request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI(),
+                    request.getRequestURI(), sanitize(request.getParameterMap()));
+            if (!queue.offer(captured)) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String[]> sanitize(Map<String, String[]> parameters) {
+        List<String[]> sanitized = new ArrayList<>(parameters.size());
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            boolean freeText = freeTextParameters.contains(parameter.getKey());
+            for (String value : parameter.getValue()) {
+                boolean keep = !freeText && SAFE_VALUE.matcher(value).matches();
+                sanitized.add(new String[]{parameter.getKey(), keep ? value : hash(value)});
+            }
+        }
+        return sanitized;
+    }
+
+    private String hash(String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(hashKey);
+            byte[] digest = mac.doFinal(value.trim().toLowerCase().getBytes(StandardCharsets.UTF_8));
+            return HASH_PREFIX + HexFormat.of().formatHex(digest, 0, 6);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void drain() {
+        try (CaptureLog.Writer writer = CaptureLog.writer(Files.newOutputStream(file), currentMicros())) {
+            while (running || !queue.isEmpty()) {
+                CapturedRequest captured;
+                try {
+                    captured = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // Shutdown: write out whatever is still queued
+                    running = false;
+                    continue;
+                }
+                if (captured == null) {
+                    writer.flush();
+                    continue;
+                }
+                writer.write(captured);
+                if (writer.size() >= maxBytes) {
+                    logger.warn("Traffic capture reached {} bytes, stopping", writer.size());
+                    running = false;
+                    queue.clear();
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+            logger.error("Traffic capture to {} failed", file, e);
+        }
+    }
+
+    private static String roleOf(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "ANONYMOUS";
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authority.getAuthority().startsWith("ROLE_")) {
+                return authority.getAuthority().substring("ROLE_".length());
+            }
+        }
+        return "ANONYMOUS";
+    }
+
+    private static long currentMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    }
+}
@@ -4,8 +4,11 @@ import com.ticketing.dto.UserRegistrationRequest;
 import com.ticketing.dto.UserResponse;
 import com.ticketing.model.*;
 import com.ticketing.security.UserPrincipal;
+import com.ticketing.service.StorageQuotaService;
+import com.ticketing.service.TicketConflictException;
 import com.ticketing.service.TicketService;
 import com.ticketing.service.UserService;
+import com.ticketing.repository.ScheduledJobStatusRepository;
 import com.ticketing.repository.UserRepository;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +16,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -37,6 +41,12 @@ public class AdminController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StorageQuotaService storageQuotaService;
+
+    @Autowired
+    private ScheduledJobStatusRepository scheduledJobStatusRepository;
+
     // User Management
     @GetMapping("/users")
     public ResponseEntity<?> getAllUsers(
@@ -138,6 +148,8 @@ public class AdminController {
 
             Ticket ticket = ticketService.assignTicket(id, assigneeId, admin);
             return ResponseEntity.ok(ticket);
+        } catch (TicketConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -155,6 +167,8 @@ public class AdminController {
 
             Ticket ticket = ticketService.updateTicketStatus(id, status, admin);
             return ResponseEntity.ok(ticket);
+        } catch (TicketConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -214,4 +228,38 @@ public class AdminController {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    // Storage Usage
+    @GetMapping("/storage/top-consumers")
+    public ResponseEntity<?> getTopStorageConsumers(
+            @RequestParam(defaultValue = "USER") StorageOwnerType ownerType,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<StorageUsage> consumers = storageQuotaService.getTopConsumers(ownerType, Math.min(limit, 500));
+            return ResponseEntity.ok(consumers);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/storage/usage/rebuild")
+    public ResponseEntity<?> rebuildStorageUsage() {
+        try {
+            storageQuotaService.rebuildUsage();
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // Scheduled Jobs
+    @GetMapping("/jobs")
+    public ResponseEntity<?> getScheduledJobs() {
+        try {
+            List<ScheduledJobStatus> jobs = scheduledJobStatusRepository.findAllByOrderByJobAscShardAsc();
+            return ResponseEntity.ok(jobs);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -1,32 +1,52 @@
 package com.ticketing.controller;
 
+import com.ticketing.idempotency.IdempotentRequests;
 import com.ticketing.model.Attachment;
 import com.ticketing.model.User;
 import com.ticketing.security.UserPrincipal;
+import com.ticketing.service.AttachmentBundle;
+import com.ticketing.service.AttachmentContent;
 import com.ticketing.service.AttachmentService;
+import com.ticketing.service.ThumbnailService;
 import com.ticketing.repository.UserRepository;
+import com.ticketing.storage.ContentCompression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/tickets/{ticketId}/attachments")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AttachmentController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentController.class);
+
     @Autowired
     private AttachmentService attachmentService;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
     @GetMapping
     public ResponseEntity<?> getTicketAttachments(
             @PathVariable Long ticketId,
@@ -47,6 +67,7 @@ public class AttachmentController {
     public ResponseEntity<?> uploadAttachment(
             @PathVariable Long ticketId,
             @RequestParam("file") MultipartFile file,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
         try {
@@ -57,8 +78,12 @@ public class AttachmentController {
                 return ResponseEntity.badRequest().body("Please select a file to upload");
             }
 
-            Attachment attachment = attachmentService.uploadAttachment(ticketId, file, user);
-            return ResponseEntity.ok(attachment);
+            // Name, type and size stand in for the content, which is not hashed
+            List<Object> upload = Arrays.asList(file.getOriginalFilename(), file.getContentType(), file.getSize());
+            return idempotentRequests.execute(user, idempotencyKey, "upload-attachment:" + ticketId, upload, () -> {
+                Attachment attachment = attachmentService.uploadAttachment(ticketId, file, user);
+                return ResponseEntity.ok(attachment);
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -68,19 +93,88 @@ public class AttachmentController {
     public ResponseEntity<?> downloadAttachment(
             @PathVariable Long ticketId,
             @PathVariable Long attachmentId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
         try {
             User user = userRepository.findByUsername(userPrincipal.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            byte[] fileContent = attachmentService.downloadAttachment(attachmentId, user);
-            
-            // You might want to get the attachment details to set proper headers
-            return ResponseEntity.ok()
+            boolean acceptsGzip = ContentCompression.acceptsGzip(acceptEncoding);
+            AttachmentContent content = attachmentService.downloadAttachment(attachmentId, user, acceptsGzip);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"file\"")
-                    .body(new ByteArrayResource(fileContent));
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(content.getFileName(), StandardCharsets.UTF_8).build().toString())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (content.getContentLength() >= 0) {
+                response.contentLength(content.getContentLength());
+            }
+            if (content.getContentEncoding() != null) {
+                response.header(HttpHeaders.CONTENT_ENCODING, content.getContentEncoding());
+            }
+
+            return response.body(new InputStreamResource(content.getStream()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/bundle.zip")
+    public ResponseEntity<?> downloadAttachmentBundle(
+            @PathVariable Long ticketId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        try {
+            User user = userRepository.findByUsername(userPrincipal.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            AttachmentBundle bundle = attachmentService.getAttachmentBundle(ticketId, user);
+
+            StreamingResponseBody body = out -> {
+                try {
+                    bundle.writeTo(out);
+                } catch (AttachmentBundle.EntryReadException e) {
+                    // Storage failed mid-entry; abort the response so the client sees a broken download
+                    logger.warn("Attachment bundle for ticket {} failed: {}", ticketId, e.getMessage());
+                    throw e;
+                } catch (IOException e) {
+                    // Most likely the client went away; stop reading from storage and release the streams
+                    logger.debug("Attachment bundle for ticket {} aborted: {}", ticketId, e.getMessage());
+                }
+            };
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("ticket-" + ticketId + "-attachments.zip").build().toString())
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{attachmentId}/thumbnail")
+    public ResponseEntity<?> getAttachmentThumbnail(
+            @PathVariable Long ticketId,
+            @PathVariable Long attachmentId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        try {
+            User user = userRepository.findByUsername(userPrincipal.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            byte[] thumbnail = attachmentService.getAttachmentThumbnail(attachmentId, user);
+            if (thumbnail == null) {
+                return ResponseEntity.notFound().build();
+            }
+
+            // Thumbnails never change for a given attachment id, so clients can keep them
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(ThumbnailService.THUMBNAIL_CONTENT_TYPE))
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                    .body(new ByteArrayResource(thumbnail));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
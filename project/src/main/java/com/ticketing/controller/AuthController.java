@@ -4,6 +4,7 @@ import com.ticketing.dto.JwtResponse;
 import com.ticketing.dto.LoginRequest;
 import com.ticketing.dto.UserRegistrationRequest;
 import com.ticketing.dto.UserResponse;
+import com.ticketing.metrics.QueryBudget;
 import com.ticketing.security.JwtUtils;
 import com.ticketing.security.UserPrincipal;
 import com.ticketing.service.UserService;
@@ -31,6 +32,7 @@ public class AuthController {
     JwtUtils jwtUtils;
 
     @PostMapping("/signin")
+    @QueryBudget(1)
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
@@ -1,6 +1,8 @@
 package com.ticketing.controller;
 
 import com.ticketing.dto.CommentRequest;
+import com.ticketing.idempotency.IdempotentRequests;
+import com.ticketing.metrics.QueryBudget;
 import com.ticketing.model.Comment;
 import com.ticketing.model.User;
 import com.ticketing.security.UserPrincipal;
@@ -8,12 +10,11 @@ import com.ticketing.service.CommentService;
 import com.ticketing.repository.UserRepository;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/tickets/{ticketId}/comments")
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -25,7 +26,11 @@ public class CommentController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
     @GetMapping
+    @QueryBudget(8)
     public ResponseEntity<?> getTicketComments(
             @PathVariable Long ticketId,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -34,8 +39,8 @@ public class CommentController {
             User user = userRepository.findByUsername(userPrincipal.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            List<Comment> comments = commentService.getTicketComments(ticketId, user);
-            return ResponseEntity.ok(comments);
+            byte[] comments = commentService.getTicketComments(ticketId, user);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(comments);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -45,14 +50,17 @@ public class CommentController {
     public ResponseEntity<?> addComment(
             @PathVariable Long ticketId,
             @Valid @RequestBody CommentRequest commentRequest,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
         try {
             User user = userRepository.findByUsername(userPrincipal.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            Comment comment = commentService.addComment(ticketId, commentRequest, user);
-            return ResponseEntity.ok(comment);
+            return idempotentRequests.execute(user, idempotencyKey, "add-comment:" + ticketId, commentRequest, () -> {
+                Comment comment = commentService.addComment(ticketId, commentRequest, user);
+                return ResponseEntity.ok(comment);
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -8,6 +8,7 @@ import com.ticketing.service.RatingService;
 import com.ticketing.repository.UserRepository;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -34,9 +35,9 @@ public class RatingController {
             User user = userRepository.findByUsername(userPrincipal.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            Optional<Rating> rating = ratingService.getTicketRating(ticketId, user);
+            Optional<byte[]> rating = ratingService.getTicketRating(ticketId, user);
             if (rating.isPresent()) {
-                return ResponseEntity.ok(rating.get());
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(rating.get());
             } else {
                 return ResponseEntity.notFound().build();
             }
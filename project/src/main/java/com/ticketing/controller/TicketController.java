@@ -1,8 +1,12 @@
 package com.ticketing.controller;
 
 import com.ticketing.dto.TicketRequest;
+import com.ticketing.idempotency.IdempotentRequests;
+import com.ticketing.metrics.QueryBudget;
 import com.ticketing.model.*;
 import com.ticketing.security.UserPrincipal;
+import com.ticketing.service.TicketConflictException;
+import com.ticketing.service.TicketReadCoalescer;
 import com.ticketing.service.TicketService;
 import com.ticketing.repository.UserRepository;
 import jakarta.validation.Valid;
@@ -11,6 +15,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -27,10 +33,19 @@ public class TicketController {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private TicketReadCoalescer ticketReadCoalescer;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    // Current cost of a default page of 10 with a cold cache: lookups, then a rating, assignee, comments and
+    // attachments load per ticket. Lower it as the list stops serializing entities.
     @GetMapping("/my-tickets")
+    @QueryBudget(43)
     public ResponseEntity<?> getMyTickets(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @RequestParam(required = false) String search,
@@ -57,6 +72,7 @@ public class TicketController {
     }
 
     @GetMapping("/{id}")
+    @QueryBudget(7)
     public ResponseEntity<?> getTicketById(
             @PathVariable Long id,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
@@ -65,20 +81,20 @@ public class TicketController {
             User user = userRepository.findByUsername(userPrincipal.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            Optional<Ticket> ticket = ticketService.getTicketById(id);
-            if (ticket.isEmpty()) {
+            // Concurrent reads of the same ticket share one load
+            TicketReadCoalescer.TicketRead ticket = ticketReadCoalescer.ticket(id);
+            if (ticket == null) {
                 return ResponseEntity.notFound().build();
             }
 
             // Check if user can view this ticket
-            Ticket t = ticket.get();
             if (user.getRole() != Role.ADMIN && 
-                !t.getCreator().equals(user) && 
-                (t.getAssignee() == null || !t.getAssignee().equals(user))) {
+                !ticket.isCreator(user) && 
+                !ticket.isAssignee(user)) {
                 return ResponseEntity.status(403).body("Access denied");
             }
 
-            return ResponseEntity.ok(ticket.get());
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(ticket.body());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -87,14 +103,17 @@ public class TicketController {
     @PostMapping
     public ResponseEntity<?> createTicket(
             @Valid @RequestBody TicketRequest ticketRequest,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal userPrincipal) {
 
         try {
             User user = userRepository.findByUsername(userPrincipal.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            Ticket ticket = ticketService.createTicket(ticketRequest, user);
-            return ResponseEntity.ok(ticket);
+            return idempotentRequests.execute(user, idempotencyKey, "create-ticket", ticketRequest, () -> {
+                Ticket ticket = ticketService.createTicket(ticketRequest, user);
+                return ResponseEntity.ok(ticket);
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -112,6 +131,8 @@ public class TicketController {
 
             Ticket ticket = ticketService.updateTicket(id, ticketRequest, user);
             return ResponseEntity.ok(ticket);
+        } catch (TicketConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -130,6 +151,8 @@ public class TicketController {
 
             Ticket ticket = ticketService.updateTicketStatus(id, status, user);
             return ResponseEntity.ok(ticket);
+        } catch (TicketConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -148,6 +171,8 @@ public class TicketController {
 
             Ticket ticket = ticketService.assignTicket(id, assigneeId, user);
             return ResponseEntity.ok(ticket);
+        } catch (TicketConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -0,0 +1,65 @@
+package com.ticketing.controller;
+
+import com.ticketing.dto.TicketSummary;
+import com.ticketing.model.Priority;
+import com.ticketing.model.TicketStatus;
+import com.ticketing.reactive.TicketReadQueries;
+import com.ticketing.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only ticket listings backed by R2DBC. Results are written to the client row by row as NDJSON (or SSE when
+ * asked for text/event-stream) while the request thread is released, so a slow reader costs neither a servlet
+ * thread nor a JDBC connection.
+ */
+@RestController
+@RequestMapping("/api/v2")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TicketStreamController {
+
+    @Autowired
+    private TicketReadQueries ticketReadQueries;
+
+    @Value("${reactive.max-limit}")
+    private int maxLimit;
+
+    @GetMapping(value = "/tickets/my-tickets",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TicketSummary> streamMyTickets(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        return ticketReadQueries.findTickets(search, status, priority, userPrincipal.getId(), null,
+                cursor, sortDir.equalsIgnoreCase("desc"), clampLimit(limit));
+    }
+
+    @GetMapping(value = "/admin/tickets",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TicketSummary> streamAllTickets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Long creatorId,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+
+        return ticketReadQueries.findTickets(search, status, priority, creatorId, assigneeId,
+                cursor, sortDir.equalsIgnoreCase("desc"), clampLimit(limit));
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, maxLimit));
+    }
+}
@@ -0,0 +1,129 @@
+package com.ticketing.controller;
+
+import com.ticketing.dto.UploadSessionRequest;
+import com.ticketing.dto.UploadSessionResponse;
+import com.ticketing.idempotency.IdempotentRequests;
+import com.ticketing.model.Attachment;
+import com.ticketing.model.User;
+import com.ticketing.security.UserPrincipal;
+import com.ticketing.service.ChunkedUploadService;
+import com.ticketing.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/tickets/{ticketId}/uploads")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class UploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @PostMapping
+    public ResponseEntity<?> createUploadSession(
+            @PathVariable Long ticketId,
+            @Valid @RequestBody UploadSessionRequest uploadRequest,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        try {
+            User user = userRepository.findByUsername(userPrincipal.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            return idempotentRequests.execute(user, idempotencyKey, "create-upload:" + ticketId, uploadRequest, () -> {
+                UploadSessionResponse session = chunkedUploadService.createSession(ticketId, uploadRequest, user);
+                return ResponseEntity.ok(session);
+            });
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<?> getUploadSession(
+            @PathVariable Long ticketId,
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        try {
+            User user = userRepository.findByUsername(userPrincipal.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            UploadSessionResponse session = chunkedUploadService.getSession(sessionId, user);
+            return ResponseEntity.ok(session);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PutMapping("/{sessionId}/chunks/{chunkIndex}")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable Long ticketId,
+            @PathVariable String sessionId,
+            @PathVariable int chunkIndex,
+            @RequestHeader(value = "X-Chunk-Checksum", required = false) String checksum,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        try {
+            User user = userRepository.findByUsername(userPrincipal.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            try (InputStream in = request.getInputStream()) {
+                chunkedUploadService.uploadChunk(sessionId, chunkIndex, in, request.getContentLengthLong(), checksum, user);
+            }
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<?> completeUpload(
+            @PathVariable Long ticketId,
+            @PathVariable String sessionId,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        try {
+            User user = userRepository.findByUsername(userPrincipal.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            return idempotentRequests.execute(user, idempotencyKey, "complete-upload:" + sessionId, null, () -> {
+                Attachment attachment = chunkedUploadService.completeSession(sessionId, user);
+                return ResponseEntity.ok(attachment);
+            });
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<?> cancelUpload(
+            @PathVariable Long ticketId,
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        try {
+            User user = userRepository.findByUsername(userPrincipal.getUsername())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            chunkedUploadService.cancelSession(sessionId, user);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.ticketing.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public class UploadSessionRequest {
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String contentType;
+
+    @Positive(message = "Total size must be positive")
+    private long totalSize;
+
+    // Optional, the server default is used when not set
+    private Long chunkSize;
+
+    // Constructors
+    public UploadSessionRequest() {}
+
+    public UploadSessionRequest(String fileName, String contentType, long totalSize, Long chunkSize) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+    }
+
+    // Getters and Setters
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public Long getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(Long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
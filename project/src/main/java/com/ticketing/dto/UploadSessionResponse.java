@@ -0,0 +1,86 @@
+package com.ticketing.dto;
+
+import com.ticketing.model.UploadSession;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UploadSessionResponse {
+    private String id;
+    private String fileName;
+    private long totalSize;
+    private long chunkSize;
+    private int chunkCount;
+    private List<Integer> receivedChunks;
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public UploadSessionResponse() {}
+
+    public UploadSessionResponse(UploadSession session, List<Integer> receivedChunks) {
+        this.id = session.getId();
+        this.fileName = session.getOriginalFileName();
+        this.totalSize = session.getTotalSize();
+        this.chunkSize = session.getChunkSize();
+        this.chunkCount = session.getChunkCount();
+        this.receivedChunks = receivedChunks;
+        this.expiresAt = session.getExpiresAt();
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public void setChunkCount(int chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+
+    public List<Integer> getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public void setReceivedChunks(List<Integer> receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
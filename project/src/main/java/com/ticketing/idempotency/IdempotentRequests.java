@@ -0,0 +1,274 @@
+package com.ticketing.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.model.IdempotencyRecord;
+import com.ticketing.model.User;
+import com.ticketing.repository.IdempotencyRecordRepository;
+import com.ticketing.scheduling.ClusterJobRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code Idempotency-Key} support for creating requests, so a client can retry a POST after a timeout without
+ * creating the ticket, comment or attachment twice.
+ *
+ * Keys are scoped to the user. The first request with a key claims a row in {@code idempotency_keys} before doing
+ * any work, and stores its status and JSON body once it succeeds. A retry with the same key and request gets that
+ * stored response back without running anything; a retry with a different request gets 422. A failed request
+ * releases its key, so the retry runs again. A request whose response cannot be stored is still marked finished,
+ * and its retries get 409 rather than running again.
+ *
+ * A striped lock makes claiming a key and registering it as running on this node one step; it is not held while the
+ * request runs. Duplicates arriving on the same node meanwhile wait for the running request to finish, then replay
+ * its result without a second claim. A duplicate on another node finds the claimed row and gets 409. Rows expire
+ * after {@code ttl}; a claim still unfinished after {@code abandon-after}, left by a node that died mid-request, can
+ * be taken again.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentRequests.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int PURGE_BATCH = 1000;
+    private static final int STORE_ATTEMPTS = 3;
+    private static final long STORE_RETRY_DELAY_MS = 100;
+
+    /** Stored instead of the response when it could not be stored; the request ran, so it must not run again */
+    private static final short RESPONSE_LOST = 0;
+
+    private record InFlightKey(Long userId, String key) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final ClusterJobRunner clusterJobRunner;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration abandonAfter;
+    private final Duration lockWait;
+    private final ReentrantLock[] stripes;
+    private final ConcurrentHashMap<InFlightKey, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentRequests(IdempotencyRecordRepository repository,
+                              ClusterJobRunner clusterJobRunner,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.enabled}") boolean enabled,
+                              @Value("${idempotency.ttl}") Duration ttl,
+                              @Value("${idempotency.abandon-after}") Duration abandonAfter,
+                              @Value("${idempotency.lock-wait}") Duration lockWait,
+                              @Value("${idempotency.lock-stripes}") int lockStripes) {
+        this.repository = repository;
+        this.clusterJobRunner = clusterJobRunner;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.abandonAfter = abandonAfter;
+        this.lockWait = lockWait;
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs {@code action} once per key. Without a key the action simply runs.
+     *
+     * @param operation names the endpoint and its path variables, so a key cannot replay another endpoint's result
+     * @param request   what the client sent, compared between the first request and its retries
+     */
+    public ResponseEntity<?> execute(User user, String key, String operation, Object request,
+                                     Callable<ResponseEntity<?>> action) throws Exception {
+        if (key == null || !enabled) {
+            return action.call();
+        }
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body("Error: " + HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        byte[] fingerprint = fingerprint(operation, request);
+        InFlightKey id = new InFlightKey(user.getId(), key);
+        ReentrantLock stripe = stripes[Math.floorMod(id.hashCode(), stripes.length)];
+        long deadline = System.nanoTime() + lockWait.toNanos();
+        while (true) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            CompletableFuture<Void> running;
+            boolean claimed = false;
+            if (!stripe.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return inProgress();
+            }
+            try {
+                running = inFlight.putIfAbsent(id, done);
+                if (running == null) {
+                    claimed = repository.claim(user.getId(), key, fingerprint, ttl.toSeconds(),
+                            abandonAfter.toSeconds()) == 1;
+                }
+            } catch (RuntimeException e) {
+                finish(id, done);
+                throw e;
+            } finally {
+                stripe.unlock();
+            }
+
+            if (running != null) {
+                // Same key running on this node: wait for it outside the stripe, then claim or replay
+                try {
+                    running.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    return inProgress();
+                } catch (ExecutionException e) {
+                    // Never completed exceptionally
+                }
+                continue;
+            }
+            try {
+                return claimed ? run(user, key, action) : replay(user, key, fingerprint);
+            } finally {
+                finish(id, done);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms}", initialDelayString = "${idempotency.purge-interval-ms}")
+    public void purgeExpired() {
+        clusterJobRunner.run("idempotency-purge", 1, shard -> {
+            int deleted;
+            do {
+                deleted = repository.deleteExpired(PURGE_BATCH);
+            } while (deleted == PURGE_BATCH && shard.isHeld());
+        });
+    }
+
+    private ResponseEntity<?> run(User user, String key, Callable<ResponseEntity<?>> action) throws Exception {
+        ResponseEntity<?> response;
+        byte[] body;
+        try {
+            response = action.call();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                repository.release(user.getId(), key);
+                return response;
+            }
+            body = response.getBody() instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(response.getBody());
+        } catch (Exception e) {
+            repository.release(user.getId(), key);
+            throw e;
+        }
+        int status = response.getStatusCode().value();
+        store(user.getId(), key, (short) status, body);
+        count("executed");
+        // Same bytes as a later replay, rather than the entity serialized a second time
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Stores the response of a request that ran. Should that keep failing, the key is marked finished without a
+     * response, since a row left claimed would be taken over after {@code abandon-after} and run the request again.
+     */
+    private void store(Long userId, String key, short status, byte[] body) {
+        for (int attempt = 1; attempt <= STORE_ATTEMPTS; attempt++) {
+            try {
+                repository.complete(userId, key, status, body);
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to store the response for {} of user {} (attempt {}): {}",
+                        HEADER, userId, attempt, e.getMessage());
+            }
+            if (attempt < STORE_ATTEMPTS) {
+                try {
+                    Thread.sleep(STORE_RETRY_DELAY_MS * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        try {
+            repository.complete(userId, key, RESPONSE_LOST, new byte[0]);
+        } catch (RuntimeException e) {
+            logger.error("Failed to mark {} of user {} finished; it can run again after {}",
+                    HEADER, userId, abandonAfter, e);
+        }
+    }
+
+    private void finish(InFlightKey id, CompletableFuture<Void> done) {
+        inFlight.remove(id, done);
+        done.complete(null);
+    }
+
+    private ResponseEntity<?> inProgress() {
+        return rejected("in-progress", HttpStatus.CONFLICT, "A request with this " + HEADER + " is in progress");
+    }
+
+    private ResponseEntity<?> replay(User user, String key, byte[] fingerprint) {
+        Optional<IdempotencyRecord> stored = repository.findById(new IdempotencyRecord.Key(user.getId(), key));
+        if (stored.isEmpty()) {
+            // Released by a failed first request between our claim and this read
+            return inProgress();
+        }
+        IdempotencyRecord record = stored.get();
+        if (!Arrays.equals(record.getFingerprint(), fingerprint)) {
+            return rejected("mismatch", HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+        if (record.getStatus() == null) {
+            return inProgress();
+        }
+        if (record.getStatus() == RESPONSE_LOST) {
+            return rejected("response-lost", HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " already completed, but its response is not available");
+        }
+        count("replayed");
+        return ResponseEntity.status(record.getStatus())
+                .header(REPLAYED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(record.getBody());
+    }
+
+    private ResponseEntity<?> rejected(String outcome, HttpStatus status, String message) {
+        count(outcome);
+        return ResponseEntity.status(status).body("Error: " + message);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private byte[] fingerprint(String operation, Object request) throws JsonProcessingException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(operation.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        return digest.digest(objectMapper.writeValueAsBytes(request));
+    }
+}
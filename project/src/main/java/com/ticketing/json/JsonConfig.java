@@ -0,0 +1,36 @@
+package com.ticketing.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Extra modules for the ObjectMapper behind the MVC message converters.
+ */
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer jsonModulesCustomizer(@Value("${json.blackbird}") boolean blackbird) {
+        return builder -> builder.postConfigurer(objectMapper -> registerModules(objectMapper, blackbird));
+    }
+
+    /**
+     * Hibernate6Module writes lazy proxies as the entity they stand for rather than failing on the proxy class, and
+     * still loads lazy associations so responses keep their shape. Blackbird replaces reflective getter calls with
+     * generated lambdas; a native image cannot define classes at runtime, so it is left out there.
+     */
+    public static ObjectMapper registerModules(ObjectMapper objectMapper, boolean blackbird) {
+        objectMapper.registerModule(new Hibernate6Module()
+                .enable(Hibernate6Module.Feature.FORCE_LAZY_LOADING));
+        if (blackbird && !NativeDetector.inNativeImage()) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        return objectMapper;
+    }
+}
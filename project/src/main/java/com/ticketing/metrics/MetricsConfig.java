@@ -0,0 +1,45 @@
+package com.ticketing.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudgetMode budgetMode;
+    private final int defaultBudget;
+    private final int sampleSize;
+    private final Duration logInterval;
+
+    public MetricsConfig(MeterRegistry meterRegistry,
+                         @Value("${query-budget.mode}") QueryBudgetMode budgetMode,
+                         @Value("${query-budget.default}") int defaultBudget,
+                         @Value("${query-budget.sample-size}") int sampleSize,
+                         @Value("${query-budget.log-interval}") Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.budgetMode = budgetMode;
+        this.defaultBudget = defaultBudget;
+        this.sampleSize = sampleSize;
+        this.logInterval = logInterval;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryMetricsInterceptor(meterRegistry, budgetMode, defaultBudget, sampleSize, logInterval))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,8 @@
+package com.ticketing.metrics;
+
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
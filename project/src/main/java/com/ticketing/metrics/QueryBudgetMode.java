@@ -0,0 +1,10 @@
+package com.ticketing.metrics;
+
+public enum QueryBudgetMode {
+    /** Count statements for metrics only */
+    OFF,
+    /** Log endpoints that exceed their budget, with sample SQL, at most once per log interval */
+    LOG,
+    /** Fail the request; meant for integration tests */
+    STRICT
+}
@@ -0,0 +1,77 @@
+package com.ticketing.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start(int)} and {@link #stop()}.
+ * Statements issued outside a started scope (scheduled jobs, async listeners) are not counted.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Opens a scope that also remembers up to {@code sampleSize} distinct statements with their repeat counts.
+     */
+    public static void start(int sampleSize) {
+        CURRENT.set(new Stats(sampleSize));
+    }
+
+    /**
+     * Returns the stats of the open scope without closing it, or null if none was started on this thread.
+     */
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ends the scope and returns what it saw, or null if none was started on this thread.
+     */
+    public static Stats stop() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql);
+        }
+        return sql;
+    }
+
+    public static class Stats {
+        private final int sampleSize;
+        private final Map<String, Integer> samples = new LinkedHashMap<>();
+        private int count;
+
+        Stats(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+
+        void record(String sql) {
+            count++;
+            // Hibernate reuses the same SQL string for every load of an association, so an N+1 shows up as one
+            // sample with a high repeat count
+            Integer seen = samples.get(sql);
+            if (seen != null) {
+                samples.put(sql, seen + 1);
+            } else if (samples.size() < sampleSize) {
+                samples.put(sql, 1);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Map<String, Integer> getSamples() {
+            return samples;
+        }
+    }
+}
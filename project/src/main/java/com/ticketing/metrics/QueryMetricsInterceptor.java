@@ -0,0 +1,138 @@
+package com.ticketing.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many statements each request issued as {@code http.server.requests.queries}, tagged with the same
+ * method and uri template as {@code http.server.requests} so the two can be read side by side, and checks the
+ * count against the handler's {@link QueryBudget}.
+ */
+public class QueryMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetricsInterceptor.class);
+
+    private static final String BUDGET_ATTRIBUTE = QueryMetricsInterceptor.class.getName() + ".budget";
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudgetMode mode;
+    private final int defaultBudget;
+    private final int sampleSize;
+    private final long logIntervalNanos;
+
+    private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    public QueryMetricsInterceptor(MeterRegistry meterRegistry, QueryBudgetMode mode, int defaultBudget,
+                                   int sampleSize, Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+        this.defaultBudget = defaultBudget;
+        this.sampleSize = sampleSize;
+        this.logIntervalNanos = logInterval.toNanos();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.start(mode == QueryBudgetMode.OFF ? 0 : sampleSize);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            request.setAttribute(BUDGET_ATTRIBUTE, budgets.computeIfAbsent(handlerMethod.getMethod(), method -> {
+                QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, QueryBudget.class);
+                if (budget == null) {
+                    budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+                }
+                return budget != null ? budget.value() : defaultBudget;
+            }));
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        // Response bodies are serialized by now, so lazy loads triggered by Jackson are already counted. Throwing
+        // here rather than in afterCompletion is what lets the failure reach MockMvc and the test.
+        QueryCounter.Stats stats = QueryCounter.current();
+        Integer budget = (Integer) request.getAttribute(BUDGET_ATTRIBUTE);
+        if (mode == QueryBudgetMode.STRICT && stats != null && budget != null && stats.getCount() > budget) {
+            throw new QueryBudgetExceededException(describe(request, stats, budget));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Streaming responses finish on another thread; what the request thread issued is all we can attribute
+        record(request);
+    }
+
+    private void record(HttpServletRequest request) {
+        QueryCounter.Stats stats = QueryCounter.stop();
+        if (stats == null) {
+            return;
+        }
+        String uri = uriOf(request);
+        DistributionSummary.builder("http.server.requests.queries")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getCount());
+
+        Integer budget = (Integer) request.getAttribute(BUDGET_ATTRIBUTE);
+        if (mode == QueryBudgetMode.OFF || budget == null || stats.getCount() <= budget) {
+            return;
+        }
+        meterRegistry.counter("http.server.requests.query.budget.exceeded",
+                "method", request.getMethod(), "uri", uri).increment();
+
+        if (mode == QueryBudgetMode.LOG && shouldLog(request.getMethod() + " " + uri)) {
+            logger.warn(describe(request, stats, budget));
+        }
+    }
+
+    private boolean shouldLog(String endpoint) {
+        long now = System.nanoTime();
+        Long previous = lastLogged.get(endpoint);
+        if (previous != null && now - previous < logIntervalNanos) {
+            return false;
+        }
+        return previous == null
+                ? lastLogged.putIfAbsent(endpoint, now) == null
+                : lastLogged.replace(endpoint, previous, now);
+    }
+
+    private String describe(HttpServletRequest request, QueryCounter.Stats stats, int budget) {
+        StringBuilder message = new StringBuilder()
+                .append(request.getMethod()).append(' ').append(uriOf(request))
+                .append(" issued ").append(stats.getCount())
+                .append(" SQL statements, budget is ").append(budget);
+        for (Map.Entry<String, Integer> sample : stats.getSamples().entrySet()) {
+            message.append("\n  ").append(sample.getValue()).append("x ").append(sample.getKey());
+        }
+        return message.toString();
+    }
+
+    private String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -1,12 +1,20 @@
 package com.ticketing.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ticketing.cache.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attachments")
+@Table(name = "attachments", indexes = {
+        @Index(name = "idx_attachments_thumbnail_key", columnList = "thumbnailKey"),
+        @Index(name = "idx_attachments_thumbnail_status", columnList = "thumbnailStatus")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ATTACHMENTS)
 public class Attachment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +26,30 @@ public class Attachment {
     private long fileSize;
     private String filePath;
 
+    // Binary collation so range scans over keys follow the blob store listing order
+    @JsonIgnore
+    @Column(unique = true, columnDefinition = "varchar(255) COLLATE \"C\"")
+    private String storageKey;
+
+    // Codec applied at write time (e.g. "gzip"), null when stored as uploaded
+    @JsonIgnore
+    private String contentEncoding;
+
+    // Bytes actually held in storage, differs from fileSize when compressed
+    @JsonIgnore
+    private Long storedSize;
+
+    // CRC-32 of the original (uncompressed) content
+    @JsonIgnore
+    private Long checksumCrc32;
+
+    @JsonIgnore
+    @Column(columnDefinition = "varchar(255) COLLATE \"C\"")
+    private String thumbnailKey;
+
+    @Enumerated(EnumType.STRING)
+    private ThumbnailStatus thumbnailStatus;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id", nullable = false)
     private Ticket ticket;
@@ -32,12 +64,12 @@ public class Attachment {
     // Constructors
     public Attachment() {}
 
-    public Attachment(String fileName, String originalFileName, String contentType, long fileSize, String filePath, Ticket ticket, User uploadedBy) {
+    public Attachment(String fileName, String originalFileName, String contentType, long fileSize, String storageKey, Ticket ticket, User uploadedBy) {
         this.fileName = fileName;
         this.originalFileName = originalFileName;
         this.contentType = contentType;
         this.fileSize = fileSize;
-        this.filePath = filePath;
+        this.storageKey = storageKey;
         this.ticket = ticket;
         this.uploadedBy = uploadedBy;
     }
@@ -91,6 +123,54 @@ public class Attachment {
         this.filePath = filePath;
     }
 
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public void setContentEncoding(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public Long getStoredSize() {
+        return storedSize;
+    }
+
+    public void setStoredSize(Long storedSize) {
+        this.storedSize = storedSize;
+    }
+
+    public Long getChecksumCrc32() {
+        return checksumCrc32;
+    }
+
+    public void setChecksumCrc32(Long checksumCrc32) {
+        this.checksumCrc32 = checksumCrc32;
+    }
+
+    public String getThumbnailKey() {
+        return thumbnailKey;
+    }
+
+    public void setThumbnailKey(String thumbnailKey) {
+        this.thumbnailKey = thumbnailKey;
+    }
+
+    public ThumbnailStatus getThumbnailStatus() {
+        return thumbnailStatus;
+    }
+
+    public void setThumbnailStatus(ThumbnailStatus thumbnailStatus) {
+        this.thumbnailStatus = thumbnailStatus;
+    }
+
     public Ticket getTicket() {
         return ticket;
     }
@@ -1,13 +1,17 @@
 package com.ticketing.model;
 
+import com.ticketing.cache.CacheRegions;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.COMMENTS)
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,51 @@
+package com.ticketing.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "quarantined_blobs")
+public class QuarantinedBlob {
+    @Id
+    private String storageKey;
+
+    private long size;
+
+    @CreationTimestamp
+    private LocalDateTime quarantinedAt;
+
+    // Constructors
+    public QuarantinedBlob() {}
+
+    public QuarantinedBlob(String storageKey, long size) {
+        this.storageKey = storageKey;
+        this.size = size;
+    }
+
+    // Getters and Setters
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getQuarantinedAt() {
+        return quarantinedAt;
+    }
+
+    public void setQuarantinedAt(LocalDateTime quarantinedAt) {
+        this.quarantinedAt = quarantinedAt;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ticketing.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reconciler_checkpoints")
+public class ReconcilerCheckpoint {
+    @Id
+    private String name;
+
+    // Last blob key processed in the current pass, null at the start of a pass
+    private String lastKey;
+
+    private LocalDateTime passStartedAt;
+    private LocalDateTime lastPassCompletedAt;
+    private long passesCompleted;
+    private long orphansFound;
+    private long danglingFound;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ReconcilerCheckpoint() {}
+
+    public ReconcilerCheckpoint(String name) {
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLastKey() {
+        return lastKey;
+    }
+
+    public void setLastKey(String lastKey) {
+        this.lastKey = lastKey;
+    }
+
+    public LocalDateTime getPassStartedAt() {
+        return passStartedAt;
+    }
+
+    public void setPassStartedAt(LocalDateTime passStartedAt) {
+        this.passStartedAt = passStartedAt;
+    }
+
+    public LocalDateTime getLastPassCompletedAt() {
+        return lastPassCompletedAt;
+    }
+
+    public void setLastPassCompletedAt(LocalDateTime lastPassCompletedAt) {
+        this.lastPassCompletedAt = lastPassCompletedAt;
+    }
+
+    public long getPassesCompleted() {
+        return passesCompleted;
+    }
+
+    public void setPassesCompleted(long passesCompleted) {
+        this.passesCompleted = passesCompleted;
+    }
+
+    public long getOrphansFound() {
+        return orphansFound;
+    }
+
+    public void setOrphansFound(long orphansFound) {
+        this.orphansFound = orphansFound;
+    }
+
+    public long getDanglingFound() {
+        return danglingFound;
+    }
+
+    public void setDanglingFound(long danglingFound) {
+        this.danglingFound = danglingFound;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
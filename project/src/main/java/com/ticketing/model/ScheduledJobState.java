@@ -0,0 +1,9 @@
+package com.ticketing.model;
+
+public enum ScheduledJobState {
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    // The node lost its lock mid-run, usually because another node took the shard over
+    LOST
+}
@@ -0,0 +1,162 @@
+package com.ticketing.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// One row per job shard, written with database time by ScheduledJobStatusRepository
+@Entity
+@Table(name = "scheduled_job_status")
+@IdClass(ScheduledJobStatus.Key.class)
+public class ScheduledJobStatus {
+    @Id
+    private String job;
+
+    @Id
+    private int shard;
+
+    private int shardCount;
+
+    // Node that ran the shard last, or is running it now
+    private String owner;
+
+    @Enumerated(EnumType.STRING)
+    private ScheduledJobState state;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime heartbeatAt;
+    private Long lastDurationMs;
+    private long runs;
+    private long failures;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public static class Key implements Serializable {
+        private String job;
+        private int shard;
+
+        public Key() {}
+
+        public Key(String job, int shard) {
+            this.job = job;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return shard == key.shard && Objects.equals(job, key.job);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(job, shard);
+        }
+    }
+
+    // Constructors
+    public ScheduledJobStatus() {}
+
+    // Getters and Setters
+    public String getJob() {
+        return job;
+    }
+
+    public void setJob(String job) {
+        this.job = job;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public void setShard(int shard) {
+        this.shard = shard;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public ScheduledJobState getState() {
+        return state;
+    }
+
+    public void setState(ScheduledJobState state) {
+        this.state = state;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public Long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    public void setLastDurationMs(Long lastDurationMs) {
+        this.lastDurationMs = lastDurationMs;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
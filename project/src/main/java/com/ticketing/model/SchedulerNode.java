@@ -0,0 +1,44 @@
+package com.ticketing.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Nodes that run cluster jobs, written with database time by SchedulerNodeRepository
+@Entity
+@Table(name = "scheduler_nodes")
+public class SchedulerNode {
+    @Id
+    private String node;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime heartbeatAt;
+
+    // Constructors
+    public SchedulerNode() {}
+
+    // Getters and Setters
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.ticketing.model;
+
+public enum StorageOwnerType {
+    TICKET,
+    USER
+}
@@ -0,0 +1,82 @@
+package com.ticketing.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity
+@Table(name = "storage_usage", indexes = @Index(name = "idx_storage_usage_type_bytes", columnList = "ownerType, bytes"))
+@IdClass(StorageUsage.Key.class)
+public class StorageUsage {
+    @Id
+    @Enumerated(EnumType.STRING)
+    private StorageOwnerType ownerType;
+
+    @Id
+    private Long ownerId;
+
+    private long bytes;
+    private long files;
+
+    public static class Key implements Serializable {
+        private StorageOwnerType ownerType;
+        private Long ownerId;
+
+        public Key() {}
+
+        public Key(StorageOwnerType ownerType, Long ownerId) {
+            this.ownerType = ownerType;
+            this.ownerId = ownerId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return ownerType == key.ownerType && Objects.equals(ownerId, key.ownerId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ownerType, ownerId);
+        }
+    }
+
+    // Constructors
+    public StorageUsage() {}
+
+    // Getters and Setters
+    public StorageOwnerType getOwnerType() {
+        return ownerType;
+    }
+
+    public void setOwnerType(StorageOwnerType ownerType) {
+        this.ownerType = ownerType;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public long getFiles() {
+        return files;
+    }
+
+    public void setFiles(long files) {
+        this.files = files;
+    }
+}
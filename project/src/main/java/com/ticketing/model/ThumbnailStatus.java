@@ -0,0 +1,7 @@
+package com.ticketing.model;
+
+public enum ThumbnailStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -1,7 +1,10 @@
 package com.ticketing.model;
 
+import com.ticketing.cache.CacheRegions;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,6 +14,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "tickets")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TICKETS)
 public class Ticket {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -42,14 +46,22 @@ public class Ticket {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Every update is guarded by this, so concurrent writers get a conflict instead of overwriting each other.
+    // The default fills the column for existing rows and for rows seeded with COPY.
+    @Version
+    @Column(columnDefinition = "bigint NOT NULL DEFAULT 0")
+    private long version;
+
     private LocalDateTime resolvedAt;
 
     private LocalDateTime closedAt;
 
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TICKET_COMMENTS)
     private List<Comment> comments = new ArrayList<>();
 
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TICKET_ATTACHMENTS)
     private List<Attachment> attachments = new ArrayList<>();
 
     @OneToOne(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -93,13 +105,9 @@ public class Ticket {
         return status;
     }
 
+    // Use TicketService for status changes, which checks the transition and sets resolvedAt and closedAt
     public void setStatus(TicketStatus status) {
         this.status = status;
-        if (status == TicketStatus.RESOLVED && resolvedAt == null) {
-            this.resolvedAt = LocalDateTime.now();
-        } else if (status == TicketStatus.CLOSED && closedAt == null) {
-            this.closedAt = LocalDateTime.now();
-        }
     }
 
     public Priority getPriority() {
@@ -142,6 +150,14 @@ public class Ticket {
         this.updatedAt = updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getResolvedAt() {
         return resolvedAt;
     }
@@ -1,8 +1,27 @@
 package com.ticketing.model;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum TicketStatus {
     OPEN,
     IN_PROGRESS,
     RESOLVED,
-    CLOSED
-}
\ No newline at end of file
+    CLOSED;
+
+    private static final Map<TicketStatus, Set<TicketStatus>> TRANSITIONS = new EnumMap<>(TicketStatus.class);
+
+    static {
+        TRANSITIONS.put(OPEN, EnumSet.of(IN_PROGRESS, RESOLVED, CLOSED));
+        TRANSITIONS.put(IN_PROGRESS, EnumSet.of(OPEN, RESOLVED, CLOSED));
+        TRANSITIONS.put(RESOLVED, EnumSet.of(OPEN, IN_PROGRESS, CLOSED));
+        // A closed ticket can only be reopened
+        TRANSITIONS.put(CLOSED, EnumSet.of(OPEN));
+    }
+
+    public boolean canMoveTo(TicketStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ticketing.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_chunks",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"session_id", "chunk_index"}))
+public class UploadChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id", nullable = false)
+    private UploadSession session;
+
+    @Column(name = "chunk_index")
+    private int chunkIndex;
+
+    private long size;
+    private String checksum;
+
+    @CreationTimestamp
+    private LocalDateTime receivedAt;
+
+    // Constructors
+    public UploadChunk() {}
+
+    public UploadChunk(UploadSession session, int chunkIndex, long size, String checksum) {
+        this.session = session;
+        this.chunkIndex = chunkIndex;
+        this.size = size;
+        this.checksum = checksum;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UploadSession getSession() {
+        return session;
+    }
+
+    public void setSession(UploadSession session) {
+        this.session = session;
+    }
+
+    public int getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public void setChunkIndex(int chunkIndex) {
+        this.chunkIndex = chunkIndex;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+}
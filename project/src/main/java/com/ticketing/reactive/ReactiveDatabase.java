@@ -0,0 +1,70 @@
+package com.ticketing.reactive;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+/**
+ * Owns the R2DBC connection pool behind the /api/v2 read endpoints.
+ *
+ * The pool is deliberately not exposed as a ConnectionFactory bean: Boot backs off its JDBC DataSource when one
+ * exists, and the JPA write path still needs it.
+ */
+@Component
+public class ReactiveDatabase implements DisposableBean {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    public ReactiveDatabase(@Value("${reactive.r2dbc.url}") String url,
+                            @Value("${reactive.r2dbc.username}") String username,
+                            @Value("${reactive.r2dbc.password}") String password,
+                            @Value("${reactive.r2dbc.initial-size}") int initialSize,
+                            @Value("${reactive.r2dbc.max-size}") int maxSize,
+                            @Value("${reactive.r2dbc.max-idle-time}") Duration maxIdleTime,
+                            MeterRegistry meterRegistry) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-read")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .validationQuery("SELECT 1")
+                .build());
+        this.client = DatabaseClient.create(pool);
+
+        registerGauge(meterRegistry, "r2dbc.pool.acquired", PoolMetrics::acquiredSize);
+        registerGauge(meterRegistry, "r2dbc.pool.idle", PoolMetrics::idleSize);
+        registerGauge(meterRegistry, "r2dbc.pool.pending", PoolMetrics::pendingAcquireSize);
+    }
+
+    public DatabaseClient client() {
+        return client;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    private void registerGauge(MeterRegistry meterRegistry, String name, ToIntFunction<PoolMetrics> metric) {
+        Gauge.builder(name, pool, p -> p.getMetrics().map(metric::applyAsInt).orElse(0))
+                .tag("pool", "reactive-read")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ticketing.reactive;
+
+import com.ticketing.dto.TicketSummary;
+import com.ticketing.model.Priority;
+import com.ticketing.model.TicketStatus;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ticket list queries for the /api/v2 endpoints. Rows are mapped straight to TicketSummary, so nothing here touches
+ * the persistence context or lazy associations.
+ */
+@Component
+public class TicketReadQueries {
+
+    private static final String SELECT =
+            "SELECT t.id, t.subject, t.status, t.priority, t.created_at, t.updated_at, " +
+            "c.id AS creator_id, c.username AS creator_username, " +
+            "a.id AS assignee_id, a.username AS assignee_username " +
+            "FROM tickets t " +
+            "JOIN users c ON c.id = t.creator_id " +
+            "LEFT JOIN users a ON a.id = t.assignee_id";
+
+    private final DatabaseClient client;
+
+    public TicketReadQueries(ReactiveDatabase database) {
+        this.client = database.client();
+    }
+
+    /**
+     * Streams tickets matching the filters in id order. {@code cursor} is the last id a client has seen; passing it
+     * back continues the listing without the OFFSET scan a page number would cost.
+     */
+    public Flux<TicketSummary> findTickets(String search, TicketStatus status, Priority priority,
+                                           Long creatorId, Long assigneeId,
+                                           Long cursor, boolean descending, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (search != null && !search.isEmpty()) {
+            conditions.add("(LOWER(t.subject) LIKE :search OR LOWER(t.description) LIKE :search)");
+            params.put("search", "%" + search.toLowerCase() + "%");
+        }
+        if (status != null) {
+            conditions.add("t.status = :status");
+            params.put("status", status.name());
+        }
+        if (priority != null) {
+            conditions.add("t.priority = :priority");
+            params.put("priority", priority.name());
+        }
+        if (creatorId != null) {
+            conditions.add("t.creator_id = :creatorId");
+            params.put("creatorId", creatorId);
+        }
+        if (assigneeId != null) {
+            conditions.add("t.assignee_id = :assigneeId");
+            params.put("assigneeId", assigneeId);
+        }
+        if (cursor != null) {
+            conditions.add(descending ? "t.id < :cursor" : "t.id > :cursor");
+            params.put("cursor", cursor);
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY t.id ").append(descending ? "DESC" : "ASC").append(" LIMIT :limit");
+        params.put("limit", limit);
+
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString());
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec.map((row, metadata) -> toSummary(row)).all();
+    }
+
+    private TicketSummary toSummary(Row row) {
+        TicketSummary summary = new TicketSummary();
+        summary.setId(row.get("id", Long.class));
+        summary.setSubject(row.get("subject", String.class));
+        summary.setStatus(TicketStatus.valueOf(row.get("status", String.class)));
+        summary.setPriority(Priority.valueOf(row.get("priority", String.class)));
+        summary.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        summary.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
+        summary.setCreatorId(row.get("creator_id", Long.class));
+        summary.setCreatorUsername(row.get("creator_username", String.class));
+        summary.setAssigneeId(row.get("assignee_id", Long.class));
+        summary.setAssigneeUsername(row.get("assignee_username", String.class));
+        return summary;
+    }
+}
@@ -1,11 +1,18 @@
 package com.ticketing.repository;
 
 import com.ticketing.model.Attachment;
+import com.ticketing.model.ThumbnailStatus;
 import com.ticketing.model.Ticket;
 import com.ticketing.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +20,47 @@ public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
     List<Attachment> findByTicket(Ticket ticket);
     List<Attachment> findByUploadedBy(User uploadedBy);
     long countByTicket(Ticket ticket);
+    long countByThumbnailStatus(ThumbnailStatus thumbnailStatus);
+    List<Attachment> findTop100ByStorageKeyIsNullAndFilePathIsNotNullAndIdGreaterThanOrderByIdAsc(Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Attachment a SET a.storageKey = :storageKey, a.filePath = NULL " +
+           "WHERE a.id = :id AND a.storageKey IS NULL")
+    int switchToStorageKey(@Param("id") Long id, @Param("storageKey") String storageKey);
+
+    @Query("SELECT a FROM Attachment a WHERE a.thumbnailStatus = :status AND a.id > :id " +
+           "AND MOD(a.id, :shards) = :shard ORDER BY a.id")
+    List<Attachment> findByThumbnailStatusInShard(@Param("status") ThumbnailStatus status, @Param("id") Long id,
+                                                  @Param("shards") int shards, @Param("shard") int shard, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Attachment a SET a.thumbnailStatus = com.ticketing.model.ThumbnailStatus.PENDING " +
+           "WHERE a.thumbnailStatus IS NULL AND a.storageKey IS NOT NULL AND LOWER(a.contentType) LIKE 'image/%'")
+    int markUnprocessedImagesPending();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Attachment a SET a.thumbnailKey = :thumbnailKey, a.thumbnailStatus = :status " +
+           "WHERE a.id = :id AND a.thumbnailStatus = com.ticketing.model.ThumbnailStatus.PENDING")
+    int finishThumbnail(@Param("id") Long id, @Param("thumbnailKey") String thumbnailKey,
+                        @Param("status") ThumbnailStatus status);
+
+    // Binary collation keeps the database order identical to the blob store listing order
+    @Query(value = "SELECT storage_key FROM attachments " +
+                   "WHERE storage_key COLLATE \"C\" > :fromKey AND storage_key COLLATE \"C\" <= :toKey",
+           nativeQuery = true)
+    List<String> findStorageKeysInRange(@Param("fromKey") String fromKey, @Param("toKey") String toKey);
+
+    @Query(value = "SELECT thumbnail_key FROM attachments " +
+                   "WHERE thumbnail_key COLLATE \"C\" > :fromKey AND thumbnail_key COLLATE \"C\" <= :toKey",
+           nativeQuery = true)
+    List<String> findThumbnailKeysInRange(@Param("fromKey") String fromKey, @Param("toKey") String toKey);
+
+    List<Attachment> findByStorageKeyIn(Collection<String> storageKeys);
+
+    @Query("SELECT a.uploadedBy.id, SUM(a.fileSize), COUNT(a) FROM Attachment a " +
+           "WHERE a.ticket = :ticket GROUP BY a.uploadedBy.id")
+    List<Object[]> sumUsageByUploader(@Param("ticket") Ticket ticket);
 }
\ No newline at end of file
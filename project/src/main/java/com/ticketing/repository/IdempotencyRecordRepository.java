@@ -0,0 +1,56 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+
+    // Returns 1 if this request now owns the key: it was unused, expired, or left in progress by a request that
+    // never finished
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys (user_id, idempotency_key, fingerprint, created_at, expires_at) " +
+                   "VALUES (:userId, :key, :fingerprint, LOCALTIMESTAMP, LOCALTIMESTAMP + make_interval(secs => :ttlSeconds)) " +
+                   "ON CONFLICT (user_id, idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, " +
+                   "status = NULL, body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+                   "WHERE idempotency_keys.expires_at < LOCALTIMESTAMP OR (idempotency_keys.status IS NULL " +
+                   "AND idempotency_keys.created_at < LOCALTIMESTAMP - make_interval(secs => :abandonSeconds))",
+           nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("key") String key, @Param("fingerprint") byte[] fingerprint,
+              @Param("ttlSeconds") long ttlSeconds, @Param("abandonSeconds") long abandonSeconds);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "UPDATE idempotency_keys SET status = :status, body = :body " +
+                   "WHERE user_id = :userId AND idempotency_key = :key AND status IS NULL",
+           nativeQuery = true)
+    int complete(@Param("userId") Long userId, @Param("key") String key,
+                 @Param("status") short status, @Param("body") byte[] body);
+
+    // Frees the key after a failed request, so the client's retry runs again
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "DELETE FROM idempotency_keys WHERE user_id = :userId AND idempotency_key = :key AND status IS NULL",
+           nativeQuery = true)
+    int release(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "DELETE FROM idempotency_keys WHERE ctid IN " +
+                   "(SELECT ctid FROM idempotency_keys WHERE expires_at < LOCALTIMESTAMP LIMIT :limit)",
+           nativeQuery = true)
+    int deleteExpired(@Param("limit") int limit);
+}
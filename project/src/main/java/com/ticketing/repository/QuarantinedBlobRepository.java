@@ -0,0 +1,13 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.QuarantinedBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuarantinedBlobRepository extends JpaRepository<QuarantinedBlob, String> {
+    List<QuarantinedBlob> findTop100ByQuarantinedAtBeforeOrderByQuarantinedAtAsc(LocalDateTime time);
+}
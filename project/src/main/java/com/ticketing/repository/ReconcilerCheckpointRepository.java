@@ -0,0 +1,9 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.ReconcilerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconcilerCheckpointRepository extends JpaRepository<ReconcilerCheckpoint, String> {
+}
@@ -0,0 +1,44 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.ScheduledJobStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Timestamps come from the database clock, so heartbeats from different nodes compare without clock skew
+@Repository
+public interface ScheduledJobStatusRepository extends JpaRepository<ScheduledJobStatus, ScheduledJobStatus.Key> {
+    List<ScheduledJobStatus> findAllByOrderByJobAscShardAsc();
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduled_job_status"))
+    @Query(value = "INSERT INTO scheduled_job_status (job, shard, shard_count, owner, state, started_at, heartbeat_at, runs, failures) " +
+                   "VALUES (:job, :shard, :shardCount, :owner, 'RUNNING', LOCALTIMESTAMP, LOCALTIMESTAMP, 0, 0) " +
+                   "ON CONFLICT (job, shard) DO UPDATE SET shard_count = EXCLUDED.shard_count, owner = EXCLUDED.owner, " +
+                   "state = 'RUNNING', started_at = EXCLUDED.started_at, heartbeat_at = EXCLUDED.heartbeat_at",
+           nativeQuery = true)
+    void markStarted(@Param("job") String job, @Param("shard") int shard, @Param("shardCount") int shardCount,
+                     @Param("owner") String owner);
+
+    // Guarded by owner, so a node that lost the shard cannot overwrite the row of the node that took it over
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduled_job_status"))
+    @Query(value = "UPDATE scheduled_job_status SET state = :state, finished_at = LOCALTIMESTAMP, " +
+                   "last_duration_ms = :durationMs, last_error = :error, runs = runs + 1, " +
+                   "failures = failures + CASE WHEN :state = 'SUCCEEDED' THEN 0 ELSE 1 END " +
+                   "WHERE job = :job AND shard = :shard AND owner = :owner",
+           nativeQuery = true)
+    int markFinished(@Param("job") String job, @Param("shard") int shard, @Param("owner") String owner,
+                     @Param("state") String state, @Param("durationMs") long durationMs,
+                     @Param("error") String error);
+}
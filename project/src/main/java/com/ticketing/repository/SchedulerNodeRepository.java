@@ -0,0 +1,38 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.SchedulerNode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface SchedulerNodeRepository extends JpaRepository<SchedulerNode, String> {
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_nodes"))
+    @Query(value = "INSERT INTO scheduler_nodes (node, started_at, heartbeat_at) VALUES (:node, LOCALTIMESTAMP, LOCALTIMESTAMP) " +
+                   "ON CONFLICT (node) DO UPDATE SET heartbeat_at = LOCALTIMESTAMP",
+           nativeQuery = true)
+    void heartbeat(@Param("node") String node);
+
+    @Query(value = "SELECT node FROM scheduler_nodes " +
+                   "WHERE heartbeat_at > LOCALTIMESTAMP - make_interval(secs => :seconds) ORDER BY node",
+           nativeQuery = true)
+    List<String> findLiveNodes(@Param("seconds") long seconds);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_nodes"))
+    @Query(value = "DELETE FROM scheduler_nodes WHERE heartbeat_at < LOCALTIMESTAMP - make_interval(secs => :seconds)",
+           nativeQuery = true)
+    int deleteSilentNodes(@Param("seconds") long seconds);
+}
@@ -0,0 +1,68 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.StorageOwnerType;
+import com.ticketing.model.StorageUsage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StorageUsageRepository extends JpaRepository<StorageUsage, StorageUsage.Key> {
+    List<StorageUsage> findByOwnerTypeOrderByBytesDesc(StorageOwnerType ownerType, Pageable pageable);
+
+    // The statements below declare the one table they write. An undeclared native write makes Hibernate evict
+    // every second-level cache region, and these run on every upload.
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "INSERT INTO storage_usage (owner_type, owner_id, bytes, files) VALUES (:ownerType, :ownerId, 0, 0) " +
+                   "ON CONFLICT (owner_type, owner_id) DO NOTHING",
+           nativeQuery = true)
+    void ensureExists(@Param("ownerType") String ownerType, @Param("ownerId") Long ownerId);
+
+    // Single guarded statement, so concurrent uploads can never push a counter past its limit
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "UPDATE storage_usage SET bytes = bytes + :bytes, files = files + :files " +
+                   "WHERE owner_type = :ownerType AND owner_id = :ownerId " +
+                   "AND bytes + :bytes <= :maxBytes AND files + :files <= :maxFiles",
+           nativeQuery = true)
+    int reserve(@Param("ownerType") String ownerType, @Param("ownerId") Long ownerId,
+                @Param("bytes") long bytes, @Param("files") long files,
+                @Param("maxBytes") long maxBytes, @Param("maxFiles") long maxFiles);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "UPDATE storage_usage SET bytes = GREATEST(bytes - :bytes, 0), files = GREATEST(files - :files, 0) " +
+                   "WHERE owner_type = :ownerType AND owner_id = :ownerId",
+           nativeQuery = true)
+    int release(@Param("ownerType") String ownerType, @Param("ownerId") Long ownerId,
+                @Param("bytes") long bytes, @Param("files") long files);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "DELETE FROM storage_usage", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "INSERT INTO storage_usage (owner_type, owner_id, bytes, files) " +
+                   "SELECT 'TICKET', ticket_id, SUM(file_size), COUNT(*) FROM attachments GROUP BY ticket_id",
+           nativeQuery = true)
+    int rebuildTicketUsage();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "storage_usage"))
+    @Query(value = "INSERT INTO storage_usage (owner_type, owner_id, bytes, files) " +
+                   "SELECT 'USER', uploaded_by, SUM(file_size), COUNT(*) FROM attachments GROUP BY uploaded_by",
+           nativeQuery = true)
+    int rebuildUserUsage();
+}
@@ -0,0 +1,39 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.UploadChunk;
+import com.ticketing.model.UploadSession;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, Long> {
+    long countBySession(UploadSession session);
+
+    // One statement, so parallel retries of the same chunk both succeed and the last checksum wins
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "upload_chunks"))
+    @Query(value = "INSERT INTO upload_chunks (session_id, chunk_index, size, checksum, received_at) " +
+                   "VALUES (:sessionId, :chunkIndex, :size, :checksum, LOCALTIMESTAMP) " +
+                   "ON CONFLICT (session_id, chunk_index) DO UPDATE SET size = EXCLUDED.size, " +
+                   "checksum = EXCLUDED.checksum, received_at = EXCLUDED.received_at",
+           nativeQuery = true)
+    void upsert(@Param("sessionId") String sessionId, @Param("chunkIndex") int chunkIndex,
+                @Param("size") long size, @Param("checksum") String checksum);
+
+    @Query("SELECT c.chunkIndex FROM UploadChunk c WHERE c.session = :session ORDER BY c.chunkIndex")
+    List<Integer> findChunkIndexesBySession(@Param("session") UploadSession session);
+
+    @Modifying
+    @Query("DELETE FROM UploadChunk c WHERE c.session = :session")
+    void deleteBySession(@Param("session") UploadSession session);
+}
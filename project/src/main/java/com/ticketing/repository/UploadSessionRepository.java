@@ -0,0 +1,25 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.Ticket;
+import com.ticketing.model.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    List<UploadSession> findByExpiresAtBefore(LocalDateTime time);
+    List<UploadSession> findByTicket(Ticket ticket);
+
+    // Held until the caller's transaction ends, so completing and cancelling a session cannot overlap
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") String id);
+}
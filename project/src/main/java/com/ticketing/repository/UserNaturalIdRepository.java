@@ -0,0 +1,13 @@
+package com.ticketing.repository;
+
+import com.ticketing.model.User;
+
+import java.util.Optional;
+
+/**
+ * Username lookups by natural id, which the second-level cache answers without a query once warm. A derived
+ * {@code findByUsername} query would always go to the database.
+ */
+public interface UserNaturalIdRepository {
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,293 @@
+package com.ticketing.scheduling;
+
+import com.ticketing.model.ScheduledJobState;
+import com.ticketing.repository.ScheduledJobStatusRepository;
+import com.ticketing.repository.SchedulerNodeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs {@code @Scheduled} work once per cluster instead of once per node. Every node keeps its schedule; on each
+ * tick the runner takes a Postgres advisory lock per shard of the job and runs only the shards it got.
+ *
+ * <ul>
+ *   <li>A job split into several shards is spread over the live nodes. Each node takes at most its share per
+ *       tick, preferring the shards whose number matches its rank, and picks up any shard left unlocked.</li>
+ *   <li>The lock is a session lock on a connection held for the run, so it goes away with the node's connection.
+ *       While the shard runs, that connection heartbeats the shard's row in {@code scheduled_job_status}.</li>
+ *   <li>A node that is still connected but no longer heartbeats, such as one stuck in a long pause, has its
+ *       backend terminated by the next node that wants the shard once {@code takeover-after} has passed. The
+ *       shard is taken over on that node's next tick.</li>
+ * </ul>
+ *
+ * Each run's outcome and duration are written to {@code scheduled_job_status}, one row per job shard.
+ */
+@Component
+public class ClusterJobRunner implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+    /** Rows of nodes unheard of for this long are deleted */
+    private static final Duration NODE_EXPIRY = Duration.ofDays(1);
+
+    @FunctionalInterface
+    public interface ShardTask {
+        void run(JobShard shard) throws Exception;
+    }
+
+    private final Duration heartbeatInterval;
+    private final Duration takeoverAfter;
+    private final DataSource dataSource;
+    private final ScheduledJobStatusRepository statusRepository;
+    private final SchedulerNodeRepository nodeRepository;
+    private final MeterRegistry meterRegistry;
+    private final String node;
+    private final ScheduledExecutorService heartbeats;
+
+    public ClusterJobRunner(@Value("${scheduler.heartbeat-interval}") Duration heartbeatInterval,
+                            @Value("${scheduler.takeover-after}") Duration takeoverAfter,
+                            DataSource dataSource,
+                            ScheduledJobStatusRepository statusRepository,
+                            SchedulerNodeRepository nodeRepository,
+                            MeterRegistry meterRegistry) {
+        if (takeoverAfter.compareTo(heartbeatInterval.multipliedBy(2)) < 0) {
+            throw new IllegalArgumentException("scheduler.takeover-after must be at least two heartbeat intervals");
+        }
+        this.heartbeatInterval = heartbeatInterval;
+        this.takeoverAfter = takeoverAfter;
+        this.dataSource = dataSource;
+        this.statusRepository = statusRepository;
+        this.nodeRepository = nodeRepository;
+        this.meterRegistry = meterRegistry;
+        this.node = hostName() + "-" + ProcessHandle.current().pid();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats.scheduleAtFixedRate(this::nodeHeartbeat,
+                0, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+    }
+
+    public String node() {
+        return node;
+    }
+
+    /**
+     * Runs this node's shards of the job, one after another on the calling thread. Shards held by other nodes
+     * are skipped; failures are recorded and logged, not thrown.
+     */
+    public void run(String job, int shards, ShardTask task) {
+        List<String> liveNodes = new ArrayList<>(nodeRepository.findLiveNodes(takeoverAfter.toSeconds()));
+        if (!liveNodes.contains(node)) {
+            liveNodes.add(node);
+            liveNodes.sort(null);
+        }
+        int rank = liveNodes.indexOf(node);
+        int share = Math.ceilDiv(shards, liveNodes.size());
+
+        int ran = 0;
+        for (int shard : preferredOrder(shards, liveNodes.size(), rank)) {
+            if (ran == share) {
+                break;
+            }
+            if (runShard(job, shard, shards, task)) {
+                ran++;
+            }
+        }
+    }
+
+    /** This node's own shards first, then the others in case their nodes are gone */
+    private static List<Integer> preferredOrder(int shards, int nodes, int rank) {
+        List<Integer> own = new ArrayList<>();
+        List<Integer> others = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            (shard % nodes == rank ? own : others).add(shard);
+        }
+        own.addAll(others);
+        return own;
+    }
+
+    /** @return whether this node got the shard's lock and ran it */
+    private boolean runShard(String job, int shard, int shards, ShardTask task) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryLock(connection, job, shard)) {
+                takeOverIfStale(connection, job, shard);
+                return false;
+            }
+            execute(connection, job, shard, shards, task);
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Could not run job {} shard {}: {}", job, shard, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Runs a locked shard and releases its lock */
+    private void execute(Connection connection, String job, int shard, int shards, ShardTask task)
+            throws SQLException {
+        AtomicBoolean held = new AtomicBoolean(true);
+        ReentrantLock connectionLock = new ReentrantLock();
+        ScheduledFuture<?> heartbeat = null;
+        try {
+            statusRepository.markStarted(job, shard, shards, node);
+            heartbeat = heartbeats.scheduleAtFixedRate(
+                    () -> shardHeartbeat(connection, connectionLock, job, shard, held),
+                    heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+            long start = System.nanoTime();
+            ScheduledJobState state = ScheduledJobState.SUCCEEDED;
+            String error = null;
+            try {
+                task.run(new JobShard(job, shard, shards, held::get));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state = ScheduledJobState.FAILED;
+                error = "Interrupted";
+            } catch (Exception e) {
+                state = ScheduledJobState.FAILED;
+                error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+                logger.warn("Job {} shard {} failed: {}", job, shard, error);
+            }
+            long durationNanos = System.nanoTime() - start;
+            if (!held.get()) {
+                state = ScheduledJobState.LOST;
+                logger.warn("Job {} shard {} lost its lock while running", job, shard);
+            }
+
+            Timer.builder("scheduled.job.duration")
+                    .tag("job", job)
+                    .tag("state", state.name())
+                    .register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+            statusRepository.markFinished(job, shard, node, state.name(),
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), truncate(error));
+        } finally {
+            if (heartbeat != null) {
+                heartbeat.cancel(false);
+            }
+            // Waits for a heartbeat in progress, which uses the same connection
+            connectionLock.lock();
+            try {
+                unlock(connection, job, shard);
+            } catch (SQLException e) {
+                // Never hand a connection that may still hold the lock back to the pool
+                connection.abort(Runnable::run);
+                throw e;
+            } finally {
+                connectionLock.unlock();
+            }
+        }
+    }
+
+    private void shardHeartbeat(Connection connection, ReentrantLock connectionLock, String job, int shard,
+                                AtomicBoolean held) {
+        connectionLock.lock();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE scheduled_job_status SET heartbeat_at = LOCALTIMESTAMP " +
+                "WHERE job = ? AND shard = ? AND owner = ?")) {
+            statement.setString(1, job);
+            statement.setInt(2, shard);
+            statement.setString(3, node);
+            if (statement.executeUpdate() == 0) {
+                held.set(false);
+            }
+        } catch (SQLException e) {
+            // Most likely the backend was terminated, and the lock went with it
+            held.set(false);
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    private void nodeHeartbeat() {
+        try {
+            nodeRepository.heartbeat(node);
+            nodeRepository.deleteSilentNodes(NODE_EXPIRY.toSeconds());
+        } catch (RuntimeException e) {
+            logger.debug("Scheduler node heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    // Two-key advisory locks: the hashed job name and the shard number
+
+    private static boolean tryLock(Connection connection, String job, int shard) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?), ?)")) {
+            statement.setString(1, job);
+            statement.setInt(2, shard);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection, String job, int shard) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(hashtext(?), ?)")) {
+            statement.setString(1, job);
+            statement.setInt(2, shard);
+            statement.execute();
+        }
+    }
+
+    /** Terminates the backend holding the shard's lock if its runner stopped heartbeating */
+    private void takeOverIfStale(Connection connection, String job, int shard) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT s.owner, pg_terminate_backend(l.pid) FROM pg_locks l " +
+                "JOIN scheduled_job_status s ON s.job = ? AND s.shard = ? " +
+                "WHERE l.locktype = 'advisory' AND l.granted AND l.objsubid = 2 " +
+                "AND l.classid = hashtext(?)::oid AND l.objid = CAST(? AS oid) " +
+                "AND s.state = 'RUNNING' AND s.heartbeat_at < LOCALTIMESTAMP - make_interval(secs => ?)")) {
+            statement.setString(1, job);
+            statement.setInt(2, shard);
+            statement.setString(3, job);
+            statement.setInt(4, shard);
+            statement.setLong(5, takeoverAfter.toSeconds());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next() && resultSet.getBoolean(2)) {
+                    meterRegistry.counter("scheduled.job.takeovers", "job", job).increment();
+                    logger.warn("Job {} shard {} stopped heartbeating on {}; terminated its session to take it over",
+                            job, shard, resultSet.getString(1));
+                }
+            }
+        }
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
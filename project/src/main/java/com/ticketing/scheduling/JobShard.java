@@ -0,0 +1,46 @@
+package com.ticketing.scheduling;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * The part of a cluster job one node is running. A job split into {@code count} shards owns the keys whose
+ * remainder by {@code count} is {@code index}, so the shards cover the key range without overlapping.
+ */
+public final class JobShard {
+
+    private final String job;
+    private final int index;
+    private final int count;
+    private final BooleanSupplier held;
+
+    JobShard(String job, int index, int count, BooleanSupplier held) {
+        this.job = job;
+        this.index = index;
+        this.count = count;
+        this.held = held;
+    }
+
+    public String job() {
+        return job;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean owns(long key) {
+        return Math.floorMod(key, count) == index;
+    }
+
+    /**
+     * False once this node has lost the shard's lock, after which another node may already be running it. Long
+     * jobs check this between batches and stop.
+     */
+    public boolean isHeld() {
+        return held.getAsBoolean();
+    }
+}
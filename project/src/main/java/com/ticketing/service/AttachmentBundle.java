@@ -0,0 +1,178 @@
+package com.ticketing.service;
+
+import com.ticketing.model.Attachment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Snapshot of a ticket's attachments that can be written as a ZIP archive after the request's
+ * persistence context is gone. Entries are read and written one at a time through a fixed-size
+ * buffer, so memory use does not depend on the size of the bundle.
+ *
+ * An attachment that cannot be opened is replaced by a short {@code .unavailable.txt} entry saying so. One that
+ * fails partway through cannot be taken back, so {@link EntryReadException} ends the archive unfinished.
+ */
+public class AttachmentBundle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentBundle.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of(
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst", "jar",
+            "png", "jpg", "jpeg", "gif", "webp", "heic", "mp3", "mp4", "mov", "avi", "mkv", "webm",
+            "docx", "xlsx", "pptx", "odt", "ods", "odp");
+
+    public interface ContentOpener {
+        InputStream open(Entry entry) throws IOException;
+    }
+
+    /** Reading an entry's content from storage failed after the entry was started; writing to the client did not */
+    public static class EntryReadException extends IOException {
+        EntryReadException(Long attachmentId, IOException cause) {
+            super("Failed to read attachment " + attachmentId + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    public static class Entry {
+        private final Long attachmentId;
+        private final String storageKey;
+        private final String filePath;
+        private final String contentEncoding;
+        private final String fileName;
+        private final long size;
+        private final Long crc32;
+
+        Entry(Attachment attachment) {
+            this.attachmentId = attachment.getId();
+            this.storageKey = attachment.getStorageKey();
+            this.filePath = attachment.getFilePath();
+            this.contentEncoding = attachment.getContentEncoding();
+            this.fileName = attachment.getOriginalFileName();
+            this.size = attachment.getFileSize();
+            this.crc32 = attachment.getChecksumCrc32();
+        }
+
+        public Long getAttachmentId() {
+            return attachmentId;
+        }
+
+        public String getStorageKey() {
+            return storageKey;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final ContentOpener opener;
+
+    AttachmentBundle(List<Entry> entries, ContentOpener opener) {
+        this.entries = entries;
+        this.opener = opener;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void writeTo(OutputStream target) throws IOException {
+        Set<String> usedNames = new HashSet<>();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(target, BUFFER_SIZE));
+        for (Entry entry : entries) {
+            String name = uniqueName(entry.fileName, entry.attachmentId, usedNames);
+            InputStream in;
+            try {
+                in = opener.open(entry);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Attachment {} left out of its ticket's bundle: {}", entry.attachmentId, e.getMessage());
+                writeUnavailable(zip, uniqueName(name + ".unavailable.txt", entry.attachmentId, usedNames), name);
+                continue;
+            }
+
+            try (in) {
+                ZipEntry zipEntry = new ZipEntry(name);
+
+                // Re-deflating images and archives wastes CPU for no gain; STORED needs the CRC up front
+                if (entry.crc32 != null && isPrecompressed(entry.fileName)) {
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(entry.size);
+                    zipEntry.setCompressedSize(entry.size);
+                    zipEntry.setCrc(entry.crc32);
+                } else {
+                    zipEntry.setMethod(ZipEntry.DEFLATED);
+                }
+
+                zip.putNextEntry(zipEntry);
+                while (true) {
+                    int read;
+                    try {
+                        read = in.read(buffer);
+                    } catch (IOException e) {
+                        throw new EntryReadException(entry.attachmentId, e);
+                    }
+                    if (read < 0) {
+                        break;
+                    }
+                    zip.write(buffer, 0, read);
+                }
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private static void writeUnavailable(ZipOutputStream zip, String name, String fileName) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write((fileName + " could not be read from storage and is missing from this archive.\n")
+                .getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static boolean isPrecompressed(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && PRECOMPRESSED_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String uniqueName(String fileName, Long attachmentId, Set<String> usedNames) {
+        String name = fileName == null || fileName.isBlank() ? "attachment-" + attachmentId : fileName;
+        name = name.replace('\\', '_').replace('/', '_');
+        if (usedNames.add(name)) {
+            return name;
+        }
+
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int i = 2; ; i++) {
+            String candidate = base + " (" + i + ")" + extension;
+            if (usedNames.add(candidate)) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ticketing.service;
+
+import java.io.InputStream;
+
+public class AttachmentContent {
+
+    private final InputStream stream;
+    private final String fileName;
+    private final String contentType;
+    private final String contentEncoding;
+    private final long contentLength;
+
+    public AttachmentContent(InputStream stream, String fileName, String contentType, String contentEncoding, long contentLength) {
+        this.stream = stream;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.contentEncoding = contentEncoding;
+        this.contentLength = contentLength;
+    }
+
+    public InputStream getStream() {
+        return stream;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // Set when the stream is still encoded, e.g. gzip bytes passed straight through
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+}
@@ -2,28 +2,50 @@ package com.ticketing.service;
 
 import com.ticketing.model.Attachment;
 import com.ticketing.model.Role;
+import com.ticketing.model.ThumbnailStatus;
 import com.ticketing.model.Ticket;
 import com.ticketing.model.User;
 import com.ticketing.repository.AttachmentRepository;
 import com.ticketing.repository.TicketRepository;
+import com.ticketing.storage.BlobCache;
+import com.ticketing.storage.BlobKeys;
+import com.ticketing.storage.BlobStore;
+import com.ticketing.storage.ContentCompression;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 @Service
 public class AttachmentService {
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Value("${file.staging-dir}")
+    private String stagingDir;
+
+    @Value("${file.compression.enabled}")
+    private boolean compressionEnabled;
+
+    @Value("${file.compression.min-size}")
+    private DataSize compressionMinSize;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private BlobCache blobCache;
 
     @Autowired
     private AttachmentRepository attachmentRepository;
@@ -31,6 +53,21 @@ public class AttachmentService {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private UploadLimits uploadLimits;
+
+    @Autowired
+    private StorageQuotaService storageQuotaService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TicketReadCoalescer ticketReadCoalescer;
+
     public List<Attachment> getTicketAttachments(Long ticketId, User currentUser) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
@@ -43,6 +80,19 @@ public class AttachmentService {
     }
 
     public Attachment uploadAttachment(Long ticketId, MultipartFile file, User uploader) throws IOException {
+        Ticket ticket = getTicketForUpload(ticketId, uploader);
+        uploadLimits.checkFileSize(uploader, file.getSize());
+        storageQuotaService.reserve(ticket.getId(), uploader.getId(), file.getSize());
+
+        try (InputStream in = file.getInputStream()) {
+            return storeAttachment(ticket, uploader, file.getOriginalFilename(), file.getContentType(), file.getSize(), in);
+        } catch (IOException | RuntimeException e) {
+            storageQuotaService.release(ticket.getId(), uploader.getId(), file.getSize());
+            throw e;
+        }
+    }
+
+    public Ticket getTicketForUpload(Long ticketId, User uploader) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
 
@@ -50,34 +100,68 @@ public class AttachmentService {
             throw new AccessDeniedException("You don't have permission to upload files to this ticket");
         }
 
-        // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        return ticket;
+    }
+
+    /**
+     * Writes the content and creates the attachment row. Callers reserve storage quota first.
+     */
+    public Attachment storeAttachment(Ticket ticket, User uploader, String originalFilename, String contentType,
+                                      long size, InputStream upload) throws IOException {
+        CheckedInputStream content = new CheckedInputStream(upload, new CRC32());
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-        
-        Path filePath = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), filePath);
+        // Generate unique storage key
+        String storageKey = BlobKeys.newKey(BlobKeys.extensionOf(originalFilename));
+        String contentEncoding = null;
+        long storedSize = size;
+
+        // Text-like content such as logs and JSON dumps is gzipped before it reaches storage
+        if (compressionEnabled && size >= compressionMinSize.toBytes()
+                && ContentCompression.isCompressible(contentType, originalFilename)) {
+            Path stagingPath = Paths.get(stagingDir);
+            Files.createDirectories(stagingPath);
+            Path compressed = Files.createTempFile(stagingPath, "compress-", ".gz");
+            try {
+                storedSize = ContentCompression.gzipToFile(content, compressed);
+                try (InputStream in = Files.newInputStream(compressed)) {
+                    blobStore.put(storageKey, in, storedSize);
+                }
+            } finally {
+                Files.deleteIfExists(compressed);
+            }
+            contentEncoding = ContentCompression.GZIP;
+        } else {
+            blobStore.put(storageKey, content, size);
+        }
 
         Attachment attachment = new Attachment(
-                uniqueFilename,
+                BlobKeys.fileNameOf(storageKey),
                 originalFilename,
-                file.getContentType(),
-                file.getSize(),
-                filePath.toString(),
+                contentType,
+                size,
+                storageKey,
                 ticket,
                 uploader
         );
+        attachment.setContentEncoding(contentEncoding);
+        attachment.setStoredSize(storedSize);
+        attachment.setChecksumCrc32(content.getChecksum().getValue());
+        if (ThumbnailService.isThumbnailCandidate(contentType)) {
+            attachment.setThumbnailStatus(ThumbnailStatus.PENDING);
+        }
+
+        Attachment savedAttachment = attachmentRepository.save(attachment);
+        ticketReadCoalescer.forget(ticket.getId());
+
+        // Thumbnails are generated in the background once the row is committed
+        if (savedAttachment.getThumbnailStatus() == ThumbnailStatus.PENDING) {
+            eventPublisher.publishEvent(new AttachmentStoredEvent(savedAttachment.getId()));
+        }
 
-        return attachmentRepository.save(attachment);
+        return savedAttachment;
     }
 
-    public byte[] downloadAttachment(Long attachmentId, User currentUser) throws IOException {
+    public AttachmentContent downloadAttachment(Long attachmentId, User currentUser, boolean acceptsGzip) throws IOException {
         Attachment attachment = attachmentRepository.findById(attachmentId)
                 .orElseThrow(() -> new RuntimeException("Attachment not found"));
 
@@ -85,8 +169,45 @@ public class AttachmentService {
             throw new AccessDeniedException("You don't have permission to download this attachment");
         }
 
-        Path filePath = Paths.get(attachment.getFilePath());
-        return Files.readAllBytes(filePath);
+        InputStream stored = openCachedContent(attachment);
+        String contentEncoding = attachment.getContentEncoding();
+
+        // Pass compressed bytes straight through when the client can decode them itself
+        if (contentEncoding != null && acceptsGzip && ContentCompression.GZIP.equals(contentEncoding)) {
+            long storedSize = attachment.getStoredSize() != null ? attachment.getStoredSize() : -1;
+            return new AttachmentContent(stored, attachment.getOriginalFileName(), attachment.getContentType(),
+                    contentEncoding, storedSize);
+        }
+
+        return new AttachmentContent(ContentCompression.decode(stored, contentEncoding), attachment.getOriginalFileName(),
+                attachment.getContentType(), null, attachment.getFileSize());
+    }
+
+    public AttachmentBundle getAttachmentBundle(Long ticketId, User currentUser) {
+        Ticket ticket = ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+
+        if (!canUserViewTicket(ticket, currentUser)) {
+            throw new AccessDeniedException("You don't have permission to download attachments of this ticket");
+        }
+
+        List<AttachmentBundle.Entry> entries = attachmentRepository.findByTicket(ticket).stream()
+                .map(AttachmentBundle.Entry::new)
+                .collect(Collectors.toList());
+
+        return new AttachmentBundle(entries, entry -> ContentCompression.decode(
+                openContent(entry.getStorageKey(), entry.getFilePath()), entry.getContentEncoding()));
+    }
+
+    public byte[] getAttachmentThumbnail(Long attachmentId, User currentUser) throws IOException {
+        Attachment attachment = attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+
+        if (!canUserViewTicket(attachment.getTicket(), currentUser)) {
+            throw new AccessDeniedException("You don't have permission to view this attachment");
+        }
+
+        return thumbnailService.getThumbnail(attachment);
     }
 
     public void deleteAttachment(Long attachmentId, User currentUser) throws IOException {
@@ -97,14 +218,38 @@ public class AttachmentService {
             throw new AccessDeniedException("You don't have permission to delete this attachment");
         }
 
-        // Delete file from filesystem
-        Path filePath = Paths.get(attachment.getFilePath());
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
+        // Delete file from storage
+        thumbnailService.deleteThumbnail(attachment);
+        if (attachment.getStorageKey() != null) {
+            blobCache.invalidate(attachment.getStorageKey());
+            blobStore.delete(attachment.getStorageKey());
+        } else if (attachment.getFilePath() != null) {
+            Files.deleteIfExists(Paths.get(attachment.getFilePath()));
         }
 
         // Delete from database
         attachmentRepository.delete(attachment);
+        ticketReadCoalescer.forget(attachment.getTicket().getId());
+        storageQuotaService.release(attachment.getTicket().getId(), attachment.getUploadedBy().getId(), attachment.getFileSize());
+    }
+
+    private InputStream openCachedContent(Attachment attachment) throws IOException {
+        if (attachment.getStorageKey() == null) {
+            return openContent(null, attachment.getFilePath());
+        }
+
+        long storedSize = attachment.getStoredSize() != null ? attachment.getStoredSize()
+                : attachment.getContentEncoding() == null ? attachment.getFileSize() : -1;
+        return blobCache.open(attachment.getStorageKey(), storedSize, blobStore);
+    }
+
+    private InputStream openContent(String storageKey, String legacyFilePath) throws IOException {
+        // Rows that predate the blob store still point at a file in the legacy upload directory
+        if (storageKey == null) {
+            Path filePath = Paths.get(legacyFilePath);
+            return Files.newInputStream(filePath);
+        }
+        return blobStore.get(storageKey);
     }
 
     private boolean canUserViewTicket(Ticket ticket, User user) {
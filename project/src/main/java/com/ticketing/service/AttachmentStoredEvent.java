@@ -0,0 +1,14 @@
+package com.ticketing.service;
+
+public class AttachmentStoredEvent {
+
+    private final Long attachmentId;
+
+    public AttachmentStoredEvent(Long attachmentId) {
+        this.attachmentId = attachmentId;
+    }
+
+    public Long getAttachmentId() {
+        return attachmentId;
+    }
+}
@@ -0,0 +1,349 @@
+package com.ticketing.service;
+
+import com.ticketing.dto.UploadSessionRequest;
+import com.ticketing.dto.UploadSessionResponse;
+import com.ticketing.model.Attachment;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.UploadSession;
+import com.ticketing.model.User;
+import com.ticketing.repository.UploadChunkRepository;
+import com.ticketing.repository.UploadSessionRepository;
+import com.ticketing.scheduling.ClusterJobRunner;
+import com.ticketing.storage.BlobKeys;
+import com.ticketing.storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final long MIN_CHUNK_SIZE = 256 * 1024;
+    private static final long MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int MAX_CHUNK_COUNT = 10_000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${file.staging-dir}")
+    private String stagingDir;
+
+    @Value("${file.chunked.chunk-size}")
+    private DataSize defaultChunkSize;
+
+    @Value("${file.chunked.session-ttl}")
+    private Duration sessionTtl;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private UploadChunkRepository uploadChunkRepository;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private UploadLimits uploadLimits;
+
+    @Autowired
+    private StorageQuotaService storageQuotaService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public UploadSessionResponse createSession(Long ticketId, UploadSessionRequest request, User uploader) throws IOException {
+        Ticket ticket = attachmentService.getTicketForUpload(ticketId, uploader);
+        uploadLimits.checkFileSize(uploader, request.getTotalSize());
+
+        long chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize.toBytes();
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new RuntimeException("Chunk size must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        if ((request.getTotalSize() + chunkSize - 1) / chunkSize > MAX_CHUNK_COUNT) {
+            throw new RuntimeException("Too many chunks, use a larger chunk size");
+        }
+
+        UploadSession session = new UploadSession(
+                UUID.randomUUID().toString(),
+                request.getFileName(),
+                request.getContentType(),
+                request.getTotalSize(),
+                chunkSize,
+                ticket,
+                uploader,
+                LocalDateTime.now().plus(sessionTtl)
+        );
+
+        // Quota is held by the session from now on and released if it is cancelled or expires
+        storageQuotaService.reserve(ticket.getId(), uploader.getId(), session.getTotalSize());
+
+        try {
+            UploadSession savedSession = uploadSessionRepository.save(session);
+            return new UploadSessionResponse(savedSession, List.of());
+        } catch (RuntimeException e) {
+            storageQuotaService.release(ticket.getId(), uploader.getId(), session.getTotalSize());
+            throw e;
+        }
+    }
+
+    public UploadSessionResponse getSession(String sessionId, User uploader) {
+        UploadSession session = getActiveSession(sessionId, uploader);
+        return new UploadSessionResponse(session, uploadChunkRepository.findChunkIndexesBySession(session));
+    }
+
+    public void uploadChunk(String sessionId, int chunkIndex, InputStream content, long contentLength,
+                            String checksum, User uploader) throws IOException {
+        UploadSession session = getActiveSession(sessionId, uploader);
+
+        if (chunkIndex < 0 || chunkIndex >= session.getChunkCount()) {
+            throw new RuntimeException("Chunk index out of range");
+        }
+        long expectedLength = session.getChunkLength(chunkIndex);
+        if (contentLength >= 0 && contentLength != expectedLength) {
+            throw new RuntimeException("Chunk " + chunkIndex + " must be exactly " + expectedLength + " bytes");
+        }
+        if (checksum == null || checksum.isBlank()) {
+            throw new RuntimeException("Chunk checksum is required");
+        }
+
+        // Chunks are stored in the blob store rather than on this node's disk, so any node can take any chunk
+        Path received = receiveChunk(chunkIndex, content, expectedLength, checksum);
+        String chunkKey = chunkKey(session.getId(), chunkIndex);
+        try (InputStream in = Files.newInputStream(received)) {
+            // A retried chunk replaces the stored one only once it has been verified
+            blobStore.put(chunkKey, in, expectedLength);
+        } finally {
+            Files.deleteIfExists(received);
+        }
+
+        try {
+            uploadChunkRepository.upsert(session.getId(), chunkIndex, expectedLength, checksum.trim().toLowerCase());
+        } catch (RuntimeException e) {
+            // Completed or cancelled while this chunk was being stored; nothing will delete it otherwise
+            if (!uploadSessionRepository.existsById(session.getId())) {
+                deleteChunkBlobs(session.getId(), List.of(chunkIndex));
+            }
+            throw e;
+        }
+    }
+
+    @Transactional
+    public Attachment completeSession(String sessionId, User uploader) throws IOException {
+        // A concurrent complete or cancel waits for this transaction and then finds the session gone
+        UploadSession session = lockActiveSession(sessionId, uploader);
+
+        if (uploadChunkRepository.countBySession(session) != session.getChunkCount()) {
+            throw new RuntimeException("Upload is incomplete, missing chunks: " + missingChunks(session));
+        }
+
+        Ticket ticket = attachmentService.getTicketForUpload(session.getTicket().getId(), uploader);
+
+        Attachment attachment;
+        try (InputStream in = new SequenceInputStream(chunkStreams(session))) {
+            attachment = attachmentService.storeAttachment(ticket, uploader, session.getOriginalFileName(),
+                    session.getContentType(), session.getTotalSize(), in);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        discard(session, false);
+        return attachment;
+    }
+
+    @Transactional
+    public void cancelSession(String sessionId, User uploader) {
+        discard(lockActiveSession(sessionId, uploader), true);
+    }
+
+    /** Cancels every session of a ticket about to be deleted, since their rows reference it */
+    public void cancelTicketSessions(Ticket ticket) {
+        for (UploadSession session : uploadSessionRepository.findByTicket(ticket)) {
+            discardLocked(session.getId());
+        }
+    }
+
+    // Sessions and their chunks are shared by all nodes, so one node removes expired sessions per run
+    @Scheduled(fixedDelayString = "${file.chunked.cleanup-interval-ms}")
+    public void removeExpiredSessions() {
+        clusterJobRunner.run("upload-session-expiry", 1, shard -> {
+            for (UploadSession session : uploadSessionRepository.findByExpiresAtBefore(LocalDateTime.now())) {
+                if (!shard.isHeld()) {
+                    break;
+                }
+                discardLocked(session.getId());
+            }
+        });
+    }
+
+    /** Copies a chunk into a temp file and checks it, so nothing is stored unless it is complete and intact */
+    private Path receiveChunk(int chunkIndex, InputStream content, long length, String checksum) throws IOException {
+        Path stagingPath = Paths.get(stagingDir);
+        Files.createDirectories(stagingPath);
+        Path received = Files.createTempFile(stagingPath, "chunk-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long remaining = length;
+            try (OutputStream out = Files.newOutputStream(received)) {
+                while (remaining > 0) {
+                    int read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new RuntimeException("Chunk " + chunkIndex + " is shorter than " + length + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+            if (content.read() >= 0) {
+                throw new RuntimeException("Chunk " + chunkIndex + " is longer than " + length + " bytes");
+            }
+            if (!HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(checksum.trim())) {
+                throw new RuntimeException("Checksum mismatch for chunk " + chunkIndex);
+            }
+            return received;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(received);
+            throw e;
+        }
+    }
+
+    // Opens each chunk only when the previous one has been read
+    private Enumeration<InputStream> chunkStreams(UploadSession session) {
+        return new Enumeration<>() {
+            private int next;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < session.getChunkCount();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return blobStore.get(chunkKey(session.getId(), next++));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private UploadSession getActiveSession(String sessionId, User uploader) {
+        return checkActive(uploadSessionRepository.findById(sessionId), uploader);
+    }
+
+    private UploadSession lockActiveSession(String sessionId, User uploader) {
+        return checkActive(uploadSessionRepository.findByIdForUpdate(sessionId), uploader);
+    }
+
+    private UploadSession checkActive(Optional<UploadSession> found, User uploader) {
+        UploadSession session = found.orElseThrow(() -> new RuntimeException("Upload session not found"));
+
+        if (!session.getUploadedBy().getId().equals(uploader.getId())) {
+            throw new AccessDeniedException("You don't have permission to access this upload session");
+        }
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Upload session has expired");
+        }
+
+        return session;
+    }
+
+    private List<Integer> missingChunks(UploadSession session) {
+        Set<Integer> received = new HashSet<>(uploadChunkRepository.findChunkIndexesBySession(session));
+        return IntStream.range(0, session.getChunkCount())
+                .filter(i -> !received.contains(i))
+                .limit(20)
+                .boxed()
+                .toList();
+    }
+
+    /** Discards a session in a transaction of its own, unless it was completed or cancelled meanwhile */
+    private void discardLocked(String sessionId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                uploadSessionRepository.findByIdForUpdate(sessionId).ifPresent(session -> discard(session, true)));
+    }
+
+    private void discard(UploadSession session, boolean releaseQuota) {
+        if (releaseQuota) {
+            storageQuotaService.release(session.getTicket().getId(), session.getUploadedBy().getId(), session.getTotalSize());
+        }
+        String sessionId = session.getId();
+        List<Integer> chunkIndexes = uploadChunkRepository.findChunkIndexesBySession(session);
+        uploadChunkRepository.deleteBySession(session);
+        uploadSessionRepository.delete(session);
+
+        // Chunks go once the rows are gone for good, so a rolled back completion can be retried
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteChunkBlobs(sessionId, chunkIndexes);
+                }
+            });
+        } else {
+            deleteChunkBlobs(sessionId, chunkIndexes);
+        }
+    }
+
+    private void deleteChunkBlobs(String sessionId, List<Integer> chunkIndexes) {
+        for (int chunkIndex : chunkIndexes) {
+            try {
+                blobStore.delete(chunkKey(sessionId, chunkIndex));
+            } catch (IOException e) {
+                logger.warn("Failed to delete chunk {} of upload session {}: {}", chunkIndex, sessionId, e.getMessage());
+            }
+        }
+    }
+
+    private static String chunkKey(String sessionId, int chunkIndex) {
+        return BlobKeys.STAGING_PREFIX + sessionId + "/" + chunkIndex;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
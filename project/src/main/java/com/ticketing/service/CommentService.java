@@ -11,8 +11,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class CommentService {
 
@@ -25,21 +23,27 @@ public class CommentService {
     @Autowired
     private EmailService emailService;
 
-    public List<Comment> getTicketComments(Long ticketId, User currentUser) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+    @Autowired
+    private TicketReadCoalescer ticketReadCoalescer;
+
+    /**
+     * The ticket's comments as JSON. Concurrent reads of the same ticket share one load; the permission check
+     * still runs for each caller.
+     */
+    public byte[] getTicketComments(Long ticketId, User currentUser) {
+        // If user is not support agent or admin, only show non-internal comments
+        TicketReadCoalescer.TicketRead comments =
+                ticketReadCoalescer.comments(ticketId, currentUser.getRole() != Role.USER);
+        if (comments == null) {
+            throw new RuntimeException("Ticket not found");
+        }
 
         // Check if user can view this ticket
-        if (!canUserViewTicket(ticket, currentUser)) {
+        if (!canUserViewTicket(comments, currentUser)) {
             throw new AccessDeniedException("You don't have permission to view this ticket");
         }
 
-        // If user is not support agent or admin, only show non-internal comments
-        if (currentUser.getRole() == Role.USER) {
-            return commentRepository.findByTicketAndIsInternalFalseOrderByCreatedAtAsc(ticket);
-        } else {
-            return commentRepository.findByTicketOrderByCreatedAtAsc(ticket);
-        }
+        return comments.body();
     }
 
     public Comment addComment(Long ticketId, CommentRequest request, User author) {
@@ -62,6 +66,7 @@ public class CommentService {
         }
 
         Comment savedComment = commentRepository.save(comment);
+        ticketReadCoalescer.forget(ticketId);
         
         // Send email notification
         emailService.sendCommentAddedNotification(ticket, savedComment);
@@ -75,6 +80,12 @@ public class CommentService {
                (user.getRole() == Role.SUPPORT_AGENT && ticket.getAssignee() != null && ticket.getAssignee().equals(user));
     }
 
+    private boolean canUserViewTicket(TicketReadCoalescer.TicketRead ticket, User user) {
+        return user.getRole() == Role.ADMIN ||
+               ticket.isCreator(user) ||
+               (user.getRole() == Role.SUPPORT_AGENT && ticket.isAssignee(user));
+    }
+
     private boolean canUserCommentOnTicket(Ticket ticket, User user) {
         return user.getRole() == Role.ADMIN ||
                ticket.getCreator().equals(user) ||
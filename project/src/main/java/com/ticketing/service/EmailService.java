@@ -4,6 +4,9 @@ import com.ticketing.model.Comment;
 import com.ticketing.model.Ticket;
 import com.ticketing.model.TicketStatus;
 import com.ticketing.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
@@ -14,6 +17,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class EmailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private JavaMailSender mailSender;
 
@@ -45,7 +53,8 @@ public class EmailService {
             ));
             mailSender.send(message);
         } catch (Exception e) {
-            System.err.println("Failed to send ticket creation email: " + e.getMessage());
+            logger.warn("Failed to send ticket creation email for ticket #{}: {}", ticket.getId(), e.getMessage());
+            recordFailure("created");
         }
     }
 
@@ -73,7 +82,8 @@ public class EmailService {
             ));
             mailSender.send(message);
         } catch (Exception e) {
-            System.err.println("Failed to send status change email: " + e.getMessage());
+            logger.warn("Failed to send status change email for ticket #{}: {}", ticket.getId(), e.getMessage());
+            recordFailure("status_changed");
         }
     }
 
@@ -125,7 +135,8 @@ public class EmailService {
             ));
             mailSender.send(creatorMessage);
         } catch (Exception e) {
-            System.err.println("Failed to send assignment email: " + e.getMessage());
+            logger.warn("Failed to send assignment email for ticket #{}: {}", ticket.getId(), e.getMessage());
+            recordFailure("assigned");
         }
     }
 
@@ -173,7 +184,12 @@ public class EmailService {
                 mailSender.send(message);
             }
         } catch (Exception e) {
-            System.err.println("Failed to send comment notification email: " + e.getMessage());
+            logger.warn("Failed to send comment notification email for ticket #{}: {}", ticket.getId(), e.getMessage());
+            recordFailure("comment_added");
         }
     }
-}
\ No newline at end of file
+
+    private void recordFailure(String notification) {
+        meterRegistry.counter("notifications.email.failed", "notification", notification).increment();
+    }
+}
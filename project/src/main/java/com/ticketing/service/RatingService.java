@@ -22,6 +22,9 @@ public class RatingService {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private TicketReadCoalescer ticketReadCoalescer;
+
     public Rating rateTicket(Long ticketId, RatingRequest request, User rater) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
@@ -49,19 +52,27 @@ public class RatingService {
                 rater
         );
 
-        return ratingRepository.save(rating);
+        Rating savedRating = ratingRepository.save(rating);
+        ticketReadCoalescer.forget(ticketId);
+        return savedRating;
     }
 
-    public Optional<Rating> getTicketRating(Long ticketId, User currentUser) {
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new RuntimeException("Ticket not found"));
+    /**
+     * The ticket's rating as JSON, empty if it has not been rated. Concurrent reads of the same ticket share one
+     * load; the permission check still runs for each caller.
+     */
+    public Optional<byte[]> getTicketRating(Long ticketId, User currentUser) {
+        TicketReadCoalescer.TicketRead rating = ticketReadCoalescer.rating(ticketId);
+        if (rating == null) {
+            throw new RuntimeException("Ticket not found");
+        }
 
         // Check if user can view this ticket rating
-        if (!canUserViewTicketRating(ticket, currentUser)) {
+        if (!canUserViewTicketRating(rating, currentUser)) {
             throw new AccessDeniedException("You don't have permission to view this ticket rating");
         }
 
-        return ratingRepository.findByTicket(ticket);
+        return Optional.ofNullable(rating.body());
     }
 
     public Double getAverageRating() {
@@ -72,9 +83,9 @@ public class RatingService {
         return ratingRepository.findAverageRatingByAssignee(agent);
     }
 
-    private boolean canUserViewTicketRating(Ticket ticket, User user) {
-        return ticket.getCreator().equals(user) ||
-               (ticket.getAssignee() != null && ticket.getAssignee().equals(user)) ||
+    private boolean canUserViewTicketRating(TicketReadCoalescer.TicketRead ticket, User user) {
+        return ticket.isCreator(user) ||
+               ticket.isAssignee(user) ||
                user.getRole().name().equals("ADMIN");
     }
 }
\ No newline at end of file
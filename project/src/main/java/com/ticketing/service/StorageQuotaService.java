@@ -0,0 +1,83 @@
+package com.ticketing.service;
+
+import com.ticketing.model.StorageOwnerType;
+import com.ticketing.model.StorageUsage;
+import com.ticketing.model.Ticket;
+import com.ticketing.repository.AttachmentRepository;
+import com.ticketing.repository.StorageUsageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+@Service
+public class StorageQuotaService {
+
+    @Value("${file.quota.user-bytes}")
+    private DataSize userMaxBytes;
+
+    @Value("${file.quota.user-files}")
+    private long userMaxFiles;
+
+    @Value("${file.quota.ticket-bytes}")
+    private DataSize ticketMaxBytes;
+
+    @Value("${file.quota.ticket-files}")
+    private long ticketMaxFiles;
+
+    @Autowired
+    private StorageUsageRepository storageUsageRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    /**
+     * Reserves quota for one file before its content is written. Both counters are updated in
+     * the same transaction, so a rejection by either leaves neither changed.
+     */
+    @Transactional
+    public void reserve(Long ticketId, Long uploaderId, long bytes) {
+        reserve(StorageOwnerType.USER, uploaderId, bytes, userMaxBytes.toBytes(), userMaxFiles,
+                "Your attachment storage quota of " + userMaxBytes.toMegabytes() + "MB would be exceeded");
+        reserve(StorageOwnerType.TICKET, ticketId, bytes, ticketMaxBytes.toBytes(), ticketMaxFiles,
+                "This ticket's attachment quota would be exceeded");
+    }
+
+    @Transactional
+    public void release(Long ticketId, Long uploaderId, long bytes) {
+        storageUsageRepository.release(StorageOwnerType.USER.name(), uploaderId, bytes, 1);
+        storageUsageRepository.release(StorageOwnerType.TICKET.name(), ticketId, bytes, 1);
+    }
+
+    @Transactional
+    public void releaseTicket(Ticket ticket) {
+        for (Object[] row : attachmentRepository.sumUsageByUploader(ticket)) {
+            storageUsageRepository.release(StorageOwnerType.USER.name(), (Long) row[0],
+                    ((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+        }
+        storageUsageRepository.deleteById(new StorageUsage.Key(StorageOwnerType.TICKET, ticket.getId()));
+    }
+
+    public List<StorageUsage> getTopConsumers(StorageOwnerType ownerType, int limit) {
+        return storageUsageRepository.findByOwnerTypeOrderByBytesDesc(ownerType, PageRequest.of(0, limit));
+    }
+
+    // One full scan of attachments, meant for backfilling or repairing the counters
+    @Transactional
+    public void rebuildUsage() {
+        storageUsageRepository.deleteAllRows();
+        storageUsageRepository.rebuildTicketUsage();
+        storageUsageRepository.rebuildUserUsage();
+    }
+
+    private void reserve(StorageOwnerType ownerType, Long ownerId, long bytes, long maxBytes, long maxFiles, String message) {
+        storageUsageRepository.ensureExists(ownerType.name(), ownerId);
+        if (storageUsageRepository.reserve(ownerType.name(), ownerId, bytes, 1, maxBytes, maxFiles) == 0) {
+            throw new RuntimeException(message);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.ticketing.service;
+
+import com.ticketing.model.Attachment;
+import com.ticketing.model.QuarantinedBlob;
+import com.ticketing.model.ReconcilerCheckpoint;
+import com.ticketing.repository.AttachmentRepository;
+import com.ticketing.repository.QuarantinedBlobRepository;
+import com.ticketing.repository.ReconcilerCheckpointRepository;
+import com.ticketing.scheduling.ClusterJobRunner;
+import com.ticketing.storage.BlobInfo;
+import com.ticketing.storage.BlobKeys;
+import com.ticketing.storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles the blob store with the attachments table. Each run walks the next few batches of
+ * blob keys in sorted order and fetches the referenced keys for the same key range with one
+ * range query per batch. Unreferenced blobs older than the grace period are moved to quarantine
+ * and deleted after the retention period; rows whose blob is missing are reported. The position
+ * within the current pass is checkpointed after every batch, so a pass over millions of blobs
+ * resumes where it stopped after a restart. Passes share one checkpoint, so only one node runs at a time.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.gc.enabled", havingValue = "true", matchIfMissing = true)
+public class StorageReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageReconciler.class);
+
+    private static final String CHECKPOINT_NAME = "blob-reconciler";
+
+    // Keys are ASCII, so this bounds the final, open-ended range of a pass
+    private static final String END_OF_KEYS = "\uffff";
+
+    @Value("${storage.gc.batch-size}")
+    private int batchSize;
+
+    @Value("${storage.gc.batches-per-run}")
+    private int batchesPerRun;
+
+    @Value("${storage.gc.batch-delay-ms}")
+    private long batchDelayMs;
+
+    @Value("${storage.gc.grace-period}")
+    private Duration gracePeriod;
+
+    @Value("${storage.gc.quarantine-retention}")
+    private Duration quarantineRetention;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private ReconcilerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private QuarantinedBlobRepository quarantinedBlobRepository;
+
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
+    private final Counter orphanCounter;
+    private final Counter danglingCounter;
+    private final Counter purgedCounter;
+
+    public StorageReconciler(MeterRegistry meterRegistry) {
+        this.orphanCounter = Counter.builder("storage.gc.orphans.quarantined").register(meterRegistry);
+        this.danglingCounter = Counter.builder("storage.gc.dangling.rows").register(meterRegistry);
+        this.purgedCounter = Counter.builder("storage.gc.orphans.deleted").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms}", initialDelayString = "${storage.gc.interval-ms}")
+    public void run() {
+        clusterJobRunner.run(CHECKPOINT_NAME, 1, shard -> {
+            try {
+                for (int i = 0; i < batchesPerRun && shard.isHeld(); i++) {
+                    if (!reconcileNextBatch()) {
+                        break;
+                    }
+                    Thread.sleep(batchDelayMs);
+                }
+                if (shard.isHeld()) {
+                    purgeQuarantine();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Blob reconciliation failed: {}", e.getMessage());
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Processes one batch and returns false once the current pass has reached the end of the store.
+     */
+    public boolean reconcileNextBatch() throws IOException {
+        ReconcilerCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> new ReconcilerCheckpoint(CHECKPOINT_NAME));
+        if (checkpoint.getLastKey() == null) {
+            checkpoint.setPassStartedAt(LocalDateTime.now());
+        }
+
+        String fromKey = checkpoint.getLastKey() == null ? "" : checkpoint.getLastKey();
+        List<BlobInfo> blobs = blobStore.list(fromKey, batchSize);
+        boolean lastBatch = blobs.size() < batchSize;
+        String toKey = lastBatch ? END_OF_KEYS : blobs.get(blobs.size() - 1).getKey();
+
+        Set<String> storageKeys = new HashSet<>(attachmentRepository.findStorageKeysInRange(fromKey, toKey));
+        Set<String> referencedKeys = new HashSet<>(storageKeys);
+        referencedKeys.addAll(attachmentRepository.findThumbnailKeysInRange(fromKey, toKey));
+
+        Instant graceCutoff = Instant.now().minus(gracePeriod);
+        Set<String> presentKeys = new HashSet<>();
+        int orphans = 0;
+        for (BlobInfo blob : blobs) {
+            presentKeys.add(blob.getKey());
+            // Young blobs may belong to an upload whose row is not committed yet
+            if (!referencedKeys.contains(blob.getKey()) && blob.getLastModified().isBefore(graceCutoff)) {
+                quarantine(blob);
+                orphans++;
+            }
+        }
+
+        List<String> danglingKeys = storageKeys.stream()
+                .filter(key -> !presentKeys.contains(key))
+                .collect(Collectors.toList());
+        if (!danglingKeys.isEmpty()) {
+            reportDangling(danglingKeys);
+        }
+
+        checkpoint.setOrphansFound(checkpoint.getOrphansFound() + orphans);
+        checkpoint.setDanglingFound(checkpoint.getDanglingFound() + danglingKeys.size());
+        if (lastBatch) {
+            checkpoint.setLastKey(null);
+            checkpoint.setLastPassCompletedAt(LocalDateTime.now());
+            checkpoint.setPassesCompleted(checkpoint.getPassesCompleted() + 1);
+            logger.info("Blob reconciliation pass {} complete: {} orphans quarantined, {} dangling rows",
+                    checkpoint.getPassesCompleted(), checkpoint.getOrphansFound(), checkpoint.getDanglingFound());
+            checkpoint.setOrphansFound(0);
+            checkpoint.setDanglingFound(0);
+        } else {
+            checkpoint.setLastKey(toKey);
+        }
+        checkpointRepository.save(checkpoint);
+
+        return !lastBatch;
+    }
+
+    public void purgeQuarantine() throws IOException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(quarantineRetention);
+        List<QuarantinedBlob> expired;
+        do {
+            expired = quarantinedBlobRepository.findTop100ByQuarantinedAtBeforeOrderByQuarantinedAtAsc(cutoff);
+            for (QuarantinedBlob blob : expired) {
+                blobStore.delete(BlobKeys.QUARANTINE_PREFIX + blob.getStorageKey());
+                quarantinedBlobRepository.delete(blob);
+                purgedCounter.increment();
+            }
+        } while (expired.size() == 100);
+    }
+
+    private void quarantine(BlobInfo blob) throws IOException {
+        // Moving instead of deleting keeps a window in which a wrongly classified blob can be restored
+        blobStore.move(blob.getKey(), BlobKeys.QUARANTINE_PREFIX + blob.getKey());
+        quarantinedBlobRepository.save(new QuarantinedBlob(blob.getKey(), blob.getSize()));
+        orphanCounter.increment();
+    }
+
+    private void reportDangling(List<String> danglingKeys) {
+        List<Long> attachmentIds = new ArrayList<>();
+        for (Attachment attachment : attachmentRepository.findByStorageKeyIn(danglingKeys)) {
+            attachmentIds.add(attachment.getId());
+        }
+        danglingCounter.increment(attachmentIds.size());
+        logger.warn("Attachments with missing blobs: {}", attachmentIds);
+    }
+}
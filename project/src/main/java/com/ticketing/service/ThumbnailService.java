@@ -0,0 +1,264 @@
+package com.ticketing.service;
+
+import com.ticketing.cache.CacheInvalidationBus;
+import com.ticketing.model.Attachment;
+import com.ticketing.model.ThumbnailStatus;
+import com.ticketing.repository.AttachmentRepository;
+import com.ticketing.scheduling.ClusterJobRunner;
+import com.ticketing.scheduling.JobShard;
+import com.ticketing.storage.BlobStore;
+import com.ticketing.storage.ContentCompression;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    public static final String THUMBNAIL_CONTENT_TYPE = "image/png";
+
+    private static final String THUMBNAIL_SUFFIX = ".thumb.png";
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+
+    @Value("${thumbnail.max-dimension}")
+    private int maxDimension;
+
+    @Value("${thumbnail.sweep-shards}")
+    private int sweepShards;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private final ThreadPoolExecutor executor;
+
+    // Attachment ids that are queued or being generated on this node
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    // PENDING rows across the cluster, including those no node has queued yet
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    public ThumbnailService(MeterRegistry meterRegistry, @Value("${thumbnail.queue-capacity}") int queueCapacity) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "thumbnail");
+        Gauge.builder("attachments.thumbnails.backlog", pendingCount, AtomicLong::get)
+                .description("Attachments waiting for a thumbnail, as of the last sweep")
+                .register(meterRegistry);
+        Gauge.builder("attachments.thumbnails.in.flight", inFlight, Set::size)
+                .description("Thumbnails queued or being generated on this node")
+                .register(meterRegistry);
+    }
+
+    public static boolean isThumbnailCandidate(String contentType) {
+        return contentType != null && contentType.toLowerCase().startsWith("image/");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttachmentStored(AttachmentStoredEvent event) {
+        enqueue(event.getAttachmentId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeBacklog() {
+        int marked = attachmentRepository.markUnprocessedImagesPending();
+        if (marked > 0) {
+            logger.info("Queued {} existing image attachments for thumbnail generation", marked);
+        }
+        sweepPending();
+    }
+
+    // Picks up work lost to restarts or to a full queue; generation itself is idempotent. Sharded by attachment
+    // id, so each pending attachment is queued on one node.
+    @Scheduled(fixedDelayString = "${thumbnail.sweep-interval-ms}", initialDelayString = "${thumbnail.sweep-interval-ms}")
+    public void sweepPending() {
+        pendingCount.set(attachmentRepository.countByThumbnailStatus(ThumbnailStatus.PENDING));
+        clusterJobRunner.run("thumbnail-sweep", sweepShards, this::sweepPending);
+    }
+
+    private void sweepPending(JobShard shard) {
+        long lastId = 0;
+        while (executor.getQueue().remainingCapacity() > 0 && shard.isHeld()) {
+            List<Attachment> batch = attachmentRepository.findByThumbnailStatusInShard(
+                    ThumbnailStatus.PENDING, lastId, shard.count(), shard.index(), Limit.of(100));
+            for (Attachment attachment : batch) {
+                lastId = attachment.getId();
+                enqueue(attachment.getId());
+            }
+            if (batch.size() < 100) {
+                break;
+            }
+        }
+    }
+
+    public byte[] getThumbnail(Attachment attachment) throws IOException {
+        if (attachment.getThumbnailStatus() != ThumbnailStatus.READY || attachment.getThumbnailKey() == null) {
+            return null;
+        }
+        try (InputStream in = blobStore.get(attachment.getThumbnailKey())) {
+            return in.readAllBytes();
+        }
+    }
+
+    public void deleteThumbnail(Attachment attachment) throws IOException {
+        if (attachment.getThumbnailKey() != null) {
+            blobStore.delete(attachment.getThumbnailKey());
+        }
+    }
+
+    private void enqueue(Long attachmentId) {
+        if (!inFlight.add(attachmentId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(attachmentId);
+                } finally {
+                    inFlight.remove(attachmentId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue is full; the row stays PENDING and the next sweep retries it
+            inFlight.remove(attachmentId);
+        }
+    }
+
+    private void generate(Long attachmentId) {
+        Attachment attachment = attachmentRepository.findById(attachmentId).orElse(null);
+        if (attachment == null || attachment.getThumbnailStatus() != ThumbnailStatus.PENDING) {
+            return;
+        }
+
+        String thumbnailKey = null;
+        ThumbnailStatus status = ThumbnailStatus.FAILED;
+        try {
+            byte[] thumbnail = render(attachment);
+            if (thumbnail != null) {
+                thumbnailKey = attachment.getStorageKey() + THUMBNAIL_SUFFIX;
+                blobStore.put(thumbnailKey, new ByteArrayInputStream(thumbnail), thumbnail.length);
+                status = ThumbnailStatus.READY;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to generate thumbnail for attachment {}: {}", attachmentId, e.getMessage());
+            thumbnailKey = null;
+        }
+
+        // The entity is stale after rendering, so only the thumbnail columns are written, and only while the row
+        // is still pending. Saving it instead would re-insert an attachment deleted in the meantime.
+        if (attachmentRepository.finishThumbnail(attachmentId, thumbnailKey, status) > 0) {
+            cacheInvalidationBus.attachmentChanged(attachmentId, attachment.getTicket().getId());
+        } else if (thumbnailKey != null && !attachmentRepository.existsById(attachmentId)) {
+            // Deleted while rendering. A row finished by another node keeps the key, which it wrote too.
+            try {
+                blobStore.delete(thumbnailKey);
+            } catch (IOException e) {
+                logger.warn("Failed to delete thumbnail of deleted attachment {}: {}", attachmentId, e.getMessage());
+            }
+        }
+    }
+
+    private byte[] render(Attachment attachment) throws IOException {
+        BufferedImage source;
+        try (InputStream stored = blobStore.get(attachment.getStorageKey());
+             InputStream in = ContentCompression.decode(stored, attachment.getContentEncoding());
+             ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > MAX_SOURCE_PIXELS) {
+                    return null;
+                }
+
+                // Subsample while decoding so large screenshots never sit fully decoded in memory
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = (int) Math.max(1, Math.max(width, height) / (maxDimension * 2L));
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(target, "png", out);
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.ticketing.service;
+
+/**
+ * A ticket change that does not fit the ticket's current state: either the status transition is not allowed, or
+ * someone else changed the ticket between it being read and written. Controllers answer 409, and the client should
+ * reload the ticket before trying again.
+ */
+public class TicketConflictException extends RuntimeException {
+
+    public TicketConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ticketing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.User;
+import com.ticketing.repository.CommentRepository;
+import com.ticketing.repository.RatingRepository;
+import com.ticketing.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Shares one database load between identical concurrent reads of a ticket, its comments or its rating. When many
+ * people refresh the same ticket at once, the first request loads and serializes it and the others wait for that
+ * result instead of running the same queries.
+ *
+ * A shared result holds the JSON body plus the creator and assignee ids, and nothing attached to a persistence
+ * context, so it is safe to hand to other request threads. Permission checks stay with the callers and run against
+ * those ids for every request. Reads are coalesced only while they are in flight and nothing is kept afterwards.
+ * Writers call {@link #forget} so that a read starting after their commit never joins a load that began before it.
+ */
+@Service
+public class TicketReadCoalescer {
+
+    /**
+     * A serialized read of one ticket or something hanging off it. {@code body} is null when the ticket exists but
+     * the thing read does not, such as an unrated ticket.
+     */
+    public record TicketRead(Long creatorId, Long assigneeId, byte[] body) {
+
+        public boolean isCreator(User user) {
+            return Objects.equals(creatorId, user.getId());
+        }
+
+        public boolean isAssignee(User user) {
+            return assigneeId != null && assigneeId.equals(user.getId());
+        }
+    }
+
+    private record CommentsKey(Long ticketId, boolean includeInternal) {}
+
+    private final TicketRepository ticketRepository;
+    private final CommentRepository commentRepository;
+    private final RatingRepository ratingRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnly;
+    private final boolean enabled;
+    private final SingleFlight<Long, TicketRead> tickets;
+    private final SingleFlight<CommentsKey, TicketRead> comments;
+    private final SingleFlight<Long, TicketRead> ratings;
+
+    public TicketReadCoalescer(TicketRepository ticketRepository,
+                               CommentRepository commentRepository,
+                               RatingRepository ratingRepository,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${read-coalescing.enabled}") boolean enabled) {
+        this.ticketRepository = ticketRepository;
+        this.commentRepository = commentRepository;
+        this.ratingRepository = ratingRepository;
+        this.objectMapper = objectMapper;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.enabled = enabled;
+        this.tickets = new SingleFlight<>("ticket", meterRegistry);
+        this.comments = new SingleFlight<>("ticket-comments", meterRegistry);
+        this.ratings = new SingleFlight<>("ticket-rating", meterRegistry);
+    }
+
+    /** @return the ticket, or null if there is no such ticket */
+    public TicketRead ticket(Long ticketId) {
+        return load(tickets, ticketId, ticketId, ticket -> ticket);
+    }
+
+    /** @return the ticket's comments oldest first, or null if there is no such ticket */
+    public TicketRead comments(Long ticketId, boolean includeInternal) {
+        return load(comments, new CommentsKey(ticketId, includeInternal), ticketId, ticket -> includeInternal
+                ? commentRepository.findByTicketOrderByCreatedAtAsc(ticket)
+                : commentRepository.findByTicketAndIsInternalFalseOrderByCreatedAtAsc(ticket));
+    }
+
+    /** @return the ticket's rating, with a null body if it has none, or null if there is no such ticket */
+    public TicketRead rating(Long ticketId) {
+        return load(ratings, ticketId, ticketId, ticket -> ratingRepository.findByTicket(ticket).orElse(null));
+    }
+
+    /**
+     * Detaches in-flight reads of the ticket once the current transaction commits, or at once outside a
+     * transaction, so that reads from then on see the change.
+     */
+    public void forget(Long ticketId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    detach(ticketId);
+                }
+            });
+        } else {
+            detach(ticketId);
+        }
+    }
+
+    private void detach(Long ticketId) {
+        tickets.forget(ticketId);
+        comments.forget(new CommentsKey(ticketId, true));
+        comments.forget(new CommentsKey(ticketId, false));
+        ratings.forget(ticketId);
+    }
+
+    private <K> TicketRead load(SingleFlight<K, TicketRead> flight, K key, Long ticketId,
+                                Function<Ticket, Object> content) {
+        if (!enabled) {
+            return read(ticketId, content);
+        }
+        return flight.load(key, () -> read(ticketId, content));
+    }
+
+    private TicketRead read(Long ticketId, Function<Ticket, Object> content) {
+        // Serialized inside the transaction so lazy associations load here rather than on another thread
+        return readOnly.execute(status -> ticketRepository.findById(ticketId)
+                .map(ticket -> new TicketRead(
+                        ticket.getCreator().getId(),
+                        ticket.getAssignee() != null ? ticket.getAssignee().getId() : null,
+                        serialize(content.apply(ticket))))
+                .orElse(null));
+    }
+
+    private byte[] serialize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+}
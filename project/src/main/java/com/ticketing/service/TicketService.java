@@ -4,11 +4,14 @@ import com.ticketing.dto.TicketRequest;
 import com.ticketing.model.*;
 import com.ticketing.repository.TicketRepository;
 import com.ticketing.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,6 +29,18 @@ public class TicketService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private StorageQuotaService storageQuotaService;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TicketReadCoalescer ticketReadCoalescer;
+
     public List<Ticket> getAllTickets() {
         return ticketRepository.findAll();
     }
@@ -60,6 +75,7 @@ public class TicketService {
         ticket.setCreator(creator);
 
         Ticket savedTicket = ticketRepository.save(ticket);
+        meterRegistry.counter("tickets.created", "priority", savedTicket.getPriority().name()).increment();
         
         // Send email notification
         emailService.sendTicketCreatedNotification(savedTicket);
@@ -80,7 +96,9 @@ public class TicketService {
         ticket.setDescription(request.getDescription());
         ticket.setPriority(request.getPriority());
 
-        return ticketRepository.save(ticket);
+        Ticket savedTicket = saveGuarded(ticket);
+        ticketReadCoalescer.forget(ticketId);
+        return savedTicket;
     }
 
     public Ticket updateTicketStatus(Long ticketId, TicketStatus status, User currentUser) {
@@ -93,15 +111,23 @@ public class TicketService {
         }
 
         TicketStatus oldStatus = ticket.getStatus();
+        if (status == oldStatus) {
+            return ticket;
+        }
+        if (!oldStatus.canMoveTo(status)) {
+            throw new TicketConflictException("Ticket is " + oldStatus + " and cannot move to " + status);
+        }
         ticket.setStatus(status);
-        
-        if (status == TicketStatus.RESOLVED && oldStatus != TicketStatus.RESOLVED) {
+        // First resolution and closing times are kept when a ticket is reopened and resolved again
+        if (status == TicketStatus.RESOLVED && ticket.getResolvedAt() == null) {
             ticket.setResolvedAt(LocalDateTime.now());
-        } else if (status == TicketStatus.CLOSED && oldStatus != TicketStatus.CLOSED) {
+        } else if (status == TicketStatus.CLOSED && ticket.getClosedAt() == null) {
             ticket.setClosedAt(LocalDateTime.now());
         }
 
-        Ticket savedTicket = ticketRepository.save(ticket);
+        Ticket savedTicket = saveGuarded(ticket);
+        ticketReadCoalescer.forget(ticketId);
+        recordTransition(oldStatus, status);
         
         // Send email notification
         emailService.sendTicketStatusChangedNotification(savedTicket, oldStatus);
@@ -127,13 +153,17 @@ public class TicketService {
         }
 
         User oldAssignee = ticket.getAssignee();
+        TicketStatus oldStatus = ticket.getStatus();
         ticket.setAssignee(assignee);
         
         if (ticket.getStatus() == TicketStatus.OPEN) {
             ticket.setStatus(TicketStatus.IN_PROGRESS);
         }
 
-        Ticket savedTicket = ticketRepository.save(ticket);
+        Ticket savedTicket = saveGuarded(ticket);
+        ticketReadCoalescer.forget(ticketId);
+        meterRegistry.counter("tickets.assignments", "reassignment", String.valueOf(oldAssignee != null)).increment();
+        recordTransition(oldStatus, savedTicket.getStatus());
         
         // Send email notifications
         emailService.sendTicketAssignedNotification(savedTicket, oldAssignee);
@@ -141,6 +171,7 @@ public class TicketService {
         return savedTicket;
     }
 
+    @Transactional
     public void deleteTicket(Long ticketId, User currentUser) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket not found"));
@@ -150,7 +181,31 @@ public class TicketService {
             throw new AccessDeniedException("You don't have permission to delete this ticket");
         }
 
+        // Upload sessions reference the ticket and hold quota and staged chunks of their own
+        chunkedUploadService.cancelTicketSessions(ticket);
+        // Attachment rows go with the ticket through the cascade, so hand their quota back first
+        storageQuotaService.releaseTicket(ticket);
         ticketRepository.delete(ticket);
+        ticketReadCoalescer.forget(ticketId);
+    }
+
+    /**
+     * Saves a ticket loaded earlier in the request. The update only applies if the ticket's version is unchanged
+     * since the load, so a concurrent change is reported rather than overwritten.
+     */
+    private Ticket saveGuarded(Ticket ticket) {
+        try {
+            return ticketRepository.save(ticket);
+        } catch (OptimisticLockingFailureException e) {
+            meterRegistry.counter("tickets.write.conflicts").increment();
+            throw new TicketConflictException("Ticket was changed by someone else; reload it and try again");
+        }
+    }
+
+    private void recordTransition(TicketStatus from, TicketStatus to) {
+        if (from != to) {
+            meterRegistry.counter("tickets.status.transitions", "from", from.name(), "to", to.name()).increment();
+        }
     }
 
     private boolean canUserModifyTicket(Ticket ticket, User user) {
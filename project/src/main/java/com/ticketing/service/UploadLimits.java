@@ -0,0 +1,38 @@
+package com.ticketing.service;
+
+import com.ticketing.model.Role;
+import com.ticketing.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+public class UploadLimits {
+
+    @Value("${file.max-file-size}")
+    private DataSize userMaxFileSize;
+
+    @Value("${file.role-limits.support-agent:${file.max-file-size}}")
+    private DataSize supportAgentMaxFileSize;
+
+    @Value("${file.role-limits.admin:${file.max-file-size}}")
+    private DataSize adminMaxFileSize;
+
+    public DataSize getMaxFileSize(Role role) {
+        switch (role) {
+            case ADMIN:
+                return adminMaxFileSize;
+            case SUPPORT_AGENT:
+                return supportAgentMaxFileSize;
+            default:
+                return userMaxFileSize;
+        }
+    }
+
+    public void checkFileSize(User user, long size) {
+        DataSize limit = getMaxFileSize(user.getRole());
+        if (size > limit.toBytes()) {
+            throw new RuntimeException("File exceeds the maximum allowed size of " + limit.toMegabytes() + "MB");
+        }
+    }
+}
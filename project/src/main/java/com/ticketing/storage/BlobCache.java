@@ -0,0 +1,236 @@
+package com.ticketing.storage;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional cache for small, frequently downloaded blobs. Contents are held in direct buffers
+ * outside the Java heap, bounded by a byte budget. A blob is only admitted once a small
+ * frequency sketch has seen it requested a few times, so one-off downloads do not churn the
+ * cache, and eviction uses a CLOCK sweep that gives recently hit entries another round.
+ * Direct buffer memory is released by the garbage collector after eviction, so
+ * {@code -XX:MaxDirectMemorySize} should leave some headroom above the budget.
+ */
+@Component
+public class BlobCache {
+
+    private static final int SKETCH_WIDTH = 1 << 16;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_RESET_INTERVAL = SKETCH_WIDTH * 8;
+    private static final int MAX_HITS = 15;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final long byteBudget;
+    private final long maxEntrySize;
+    private final int admitAfter;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong bytesResident = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicIntegerArray sketch = new AtomicIntegerArray(SKETCH_WIDTH * SKETCH_DEPTH);
+    private final AtomicInteger sketchAdditions = new AtomicInteger();
+
+    // Bumped by invalidate, so a load that was in flight meanwhile is not admitted with the old bytes
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private static final class Entry {
+        final String key;
+        final ByteBuffer content;
+        final AtomicInteger recentHits = new AtomicInteger();
+        volatile boolean removed;
+
+        Entry(String key, ByteBuffer content) {
+            this.key = key;
+            this.content = content;
+        }
+    }
+
+    public BlobCache(@Value("${file.cache.enabled}") boolean enabled,
+                     @Value("${file.cache.byte-budget}") DataSize byteBudget,
+                     @Value("${file.cache.max-entry-size}") DataSize maxEntrySize,
+                     @Value("${file.cache.admit-after}") int admitAfter,
+                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.byteBudget = byteBudget.toBytes();
+        this.maxEntrySize = Math.min(maxEntrySize.toBytes(), Integer.MAX_VALUE);
+        this.admitAfter = admitAfter;
+
+        Gauge.builder("attachments.cache.bytes.resident", bytesResident, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("attachments.cache.entries", entries, Map::size).register(meterRegistry);
+        Gauge.builder("attachments.cache.hit.ratio", this, BlobCache::hitRatio).register(meterRegistry);
+        FunctionCounter.builder("attachments.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("attachments.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a blob, serving it from the cache when it is resident. {@code size} is the stored size
+     * of the blob, or a negative value when unknown, in which case the cache is bypassed.
+     */
+    public InputStream open(String key, long size, BlobStore blobStore) throws IOException {
+        if (!enabled || size < 0 || size > maxEntrySize) {
+            return blobStore.get(key);
+        }
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.incrementAndGet();
+            if (entry.recentHits.get() < MAX_HITS) {
+                entry.recentHits.incrementAndGet();
+            }
+            return new ByteBufferInputStream(entry.content.duplicate());
+        }
+
+        misses.incrementAndGet();
+        if (recordAccess(key) < admitAfter) {
+            return blobStore.get(key);
+        }
+
+        long generation = generations.get(generationStripe(key));
+        ByteBuffer content = ByteBuffer.allocateDirect((int) size);
+        try (ReadableByteChannel channel = Channels.newChannel(blobStore.get(key))) {
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // keep reading until the buffer is full or the blob ends
+            }
+        }
+        content.flip();
+
+        ByteBuffer readOnly = content.asReadOnlyBuffer();
+        admit(new Entry(key, readOnly), generation);
+        return new ByteBufferInputStream(readOnly.duplicate());
+    }
+
+    public void invalidate(String key) {
+        evictionLock.lock();
+        try {
+            generations.incrementAndGet(generationStripe(key));
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                drop(entry);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public long getBytesResident() {
+        return bytesResident.get();
+    }
+
+    private void admit(Entry entry, long generation) {
+        long size = entry.content.capacity();
+        evictionLock.lock();
+        try {
+            if (generations.get(generationStripe(entry.key)) != generation) {
+                return;
+            }
+            while (bytesResident.get() + size > byteBudget && evictOne()) {
+                // evict until the new entry fits
+            }
+            if (bytesResident.get() + size > byteBudget) {
+                return;
+            }
+            Entry previous = entries.put(entry.key, entry);
+            if (previous != null) {
+                drop(previous);
+            }
+            clock.add(entry);
+            bytesResident.addAndGet(size);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Also unlinks the entry from the clock, which would otherwise keep its buffer reachable after bytesResident
+    // stopped counting it. Called under evictionLock; a linear scan is fine at the entry counts a budget allows.
+    private void drop(Entry entry) {
+        entry.removed = true;
+        clock.remove(entry);
+        bytesResident.addAndGet(-entry.content.capacity());
+    }
+
+    // CLOCK sweep: entries hit since the last visit lose part of their credit and go round again
+    private boolean evictOne() {
+        Entry candidate;
+        while ((candidate = clock.poll()) != null) {
+            if (candidate.removed) {
+                continue;
+            }
+            int credit = candidate.recentHits.get();
+            if (credit > 0) {
+                candidate.recentHits.set(credit / 2);
+                clock.add(candidate);
+                continue;
+            }
+            if (entries.remove(candidate.key, candidate)) {
+                candidate.removed = true;
+                bytesResident.addAndGet(-candidate.content.capacity());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Count-min sketch that halves all counters periodically so old popularity fades
+    private int recordAccess(String key) {
+        int hash = spread(key.hashCode());
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < SKETCH_DEPTH; row++) {
+            int index = row * SKETCH_WIDTH + (spread(hash + row * 0x9E3779B9) & (SKETCH_WIDTH - 1));
+            estimate = Math.min(estimate, sketch.incrementAndGet(index));
+        }
+
+        if (sketchAdditions.incrementAndGet() >= SKETCH_RESET_INTERVAL) {
+            sketchAdditions.set(0);
+            for (int i = 0; i < sketch.length(); i++) {
+                sketch.set(i, sketch.get(i) >>> 1);
+            }
+        }
+        return estimate;
+    }
+
+    private static int generationStripe(String key) {
+        return spread(key.hashCode()) & (GENERATION_STRIPES - 1);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
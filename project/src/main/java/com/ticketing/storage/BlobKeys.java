@@ -0,0 +1,62 @@
+package com.ticketing.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+public final class BlobKeys {
+
+    public static final String QUARANTINE_PREFIX = "quarantine/";
+
+    // Chunks of unfinished uploads; like quarantine, outside the sharded layout the reconciler walks
+    public static final String STAGING_PREFIX = "staging/";
+
+    private static final Pattern SHARDED_KEY = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[^/]+");
+
+    private BlobKeys() {}
+
+    // Keys look like "ab/cd/<uuid><ext>" so no directory or key prefix grows unbounded
+    public static String newKey(String extension) {
+        String id = UUID.randomUUID().toString();
+        String hash = sha256Hex(id);
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + id + extension;
+    }
+
+    public static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot < fileName.lastIndexOf('/') || dot < fileName.lastIndexOf('\\')) {
+            return "";
+        }
+        String extension = fileName.substring(dot);
+        return extension.matches("\\.[A-Za-z0-9]{1,16}") ? extension : "";
+    }
+
+    public static String fileNameOf(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    public static boolean isShardedKey(String key) {
+        return SHARDED_KEY.matcher(key).matches();
+    }
+
+    static void validate(String key) {
+        if (key == null || key.isEmpty() || key.startsWith("/") || key.contains("..") || key.contains("\\")) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
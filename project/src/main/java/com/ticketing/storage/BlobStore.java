@@ -0,0 +1,24 @@
+package com.ticketing.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface BlobStore {
+
+    void put(String key, InputStream content, long contentLength) throws IOException;
+
+    InputStream get(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    void move(String sourceKey, String targetKey) throws IOException;
+
+    /**
+     * Lists sharded blob keys in ascending (binary) order, starting after {@code startAfter}.
+     * Keys outside the {@code ab/cd/...} layout, such as quarantined blobs, are not listed.
+     */
+    List<BlobInfo> list(String startAfter, int limit) throws IOException;
+}
@@ -0,0 +1,97 @@
+package com.ticketing.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class ContentCompression {
+
+    public static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+            "application/json", "application/x-ndjson", "application/xml", "application/javascript",
+            "application/x-yaml", "application/yaml", "application/sql", "application/csv",
+            "application/x-sh", "image/svg+xml");
+
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of(
+            ".log", ".txt", ".json", ".ndjson", ".csv", ".xml", ".yaml", ".yml", ".out", ".trace");
+
+    private ContentCompression() {}
+
+    public static boolean isCompressible(String contentType, String fileName) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            int semicolon = type.indexOf(';');
+            if (semicolon >= 0) {
+                type = type.substring(0, semicolon).trim();
+            }
+            if (type.startsWith("text/") || type.endsWith("+json") || type.endsWith("+xml")
+                    || COMPRESSIBLE_TYPES.contains(type)) {
+                return true;
+            }
+            if (!type.equals("application/octet-stream")) {
+                return false;
+            }
+        }
+
+        // Browsers often upload log files as application/octet-stream
+        return COMPRESSIBLE_EXTENSIONS.contains(BlobKeys.extensionOf(fileName).toLowerCase(Locale.ROOT));
+    }
+
+    public static long gzipToFile(InputStream content, Path target) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), BUFFER_SIZE)) {
+            content.transferTo(out);
+        }
+        return Files.size(target);
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header allows gzip: listed as {@code gzip} or {@code x-gzip}, or covered
+     * by {@code *} when not listed, with a q-value above zero.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // A malformed weight does not count as acceptance
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double effective = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return effective != null && effective > 0.0;
+    }
+
+    public static InputStream decode(InputStream stored, String contentEncoding) throws IOException {
+        if (GZIP.equals(contentEncoding)) {
+            return new GZIPInputStream(stored, BUFFER_SIZE);
+        }
+        return stored;
+    }
+}
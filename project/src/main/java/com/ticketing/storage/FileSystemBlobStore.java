@@ -0,0 +1,123 @@
+package com.ticketing.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern SHARD_DIR = Pattern.compile("[0-9a-f]{2}");
+
+    // Keys are ASCII, so this sorts after every key that starts with a given prefix
+    private static final String PREFIX_END = "\uffff";
+
+    private final Path root;
+
+    public FileSystemBlobStore(String rootDir) {
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+
+        // Write to a temp file first so readers never observe a partially written blob
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void move(String sourceKey, String targetKey) throws IOException {
+        Path target = resolve(targetKey);
+        Files.createDirectories(target.getParent());
+        Files.move(resolve(sourceKey), target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public List<BlobInfo> list(String startAfter, int limit) throws IOException {
+        String after = startAfter == null ? "" : startAfter;
+        List<BlobInfo> blobs = new ArrayList<>(limit);
+
+        // Shard directories have fixed-width names, so walking them in order yields keys in order
+        for (String first : sortedNames(root, true)) {
+            if ((first + "/" + PREFIX_END).compareTo(after) <= 0) {
+                continue;
+            }
+            for (String second : sortedNames(root.resolve(first), true)) {
+                String prefix = first + "/" + second + "/";
+                if ((prefix + PREFIX_END).compareTo(after) <= 0) {
+                    continue;
+                }
+                Path dir = root.resolve(first).resolve(second);
+                for (String name : sortedNames(dir, false)) {
+                    String key = prefix + name;
+                    if (key.compareTo(after) <= 0 || name.endsWith(".tmp")) {
+                        continue;
+                    }
+                    BasicFileAttributes attributes = Files.readAttributes(dir.resolve(name), BasicFileAttributes.class);
+                    blobs.add(new BlobInfo(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+                    if (blobs.size() >= limit) {
+                        return blobs;
+                    }
+                }
+            }
+        }
+        return blobs;
+    }
+
+    private static List<String> sortedNames(Path dir, boolean shardDirs) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> children = Files.list(dir)) {
+            return children
+                    .filter(child -> shardDirs ? Files.isDirectory(child) : Files.isRegularFile(child))
+                    .map(child -> child.getFileName().toString())
+                    .filter(name -> !shardDirs || SHARD_DIR.matcher(name).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    Path resolve(String key) {
+        BlobKeys.validate(key);
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ticketing.storage;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class S3BlobStore implements BlobStore {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String prefix;
+
+    public S3BlobStore(S3Client s3, String bucket, String prefix) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.prefix = prefix == null || prefix.isEmpty() || prefix.endsWith("/") ? nullToEmpty(prefix) : prefix + "/";
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength) throws IOException {
+        try {
+            s3.putObject(PutObjectRequest.builder().bucket(bucket).key(objectKey(key)).build(),
+                    RequestBody.fromInputStream(content, contentLength));
+        } catch (S3Exception e) {
+            throw new IOException("Failed to store blob " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (NoSuchKeyException e) {
+            throw new FileNotFoundException(key);
+        } catch (S3Exception e) {
+            throw new IOException("Failed to read blob " + key, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Failed to check blob " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (S3Exception e) {
+            throw new IOException("Failed to delete blob " + key, e);
+        }
+    }
+
+    @Override
+    public void move(String sourceKey, String targetKey) throws IOException {
+        try {
+            s3.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(bucket).sourceKey(objectKey(sourceKey))
+                    .destinationBucket(bucket).destinationKey(objectKey(targetKey))
+                    .build());
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey(sourceKey)).build());
+        } catch (S3Exception e) {
+            throw new IOException("Failed to move blob " + sourceKey, e);
+        }
+    }
+
+    @Override
+    public List<BlobInfo> list(String startAfter, int limit) throws IOException {
+        List<BlobInfo> blobs = new ArrayList<>(limit);
+        String after = prefix + (startAfter == null ? "" : startAfter);
+
+        try {
+            while (blobs.size() < limit) {
+                ListObjectsV2Response response = s3.listObjectsV2(ListObjectsV2Request.builder()
+                        .bucket(bucket)
+                        .prefix(prefix)
+                        .startAfter(after)
+                        .maxKeys(Math.min(1000, limit - blobs.size()))
+                        .build());
+
+                for (S3Object object : response.contents()) {
+                    after = object.key();
+                    String key = object.key().substring(prefix.length());
+                    if (!key.isEmpty() && key.charAt(0) > 'f') {
+                        // Past the last hex shard, only quarantined or foreign objects follow
+                        return blobs;
+                    }
+                    if (BlobKeys.isShardedKey(key)) {
+                        blobs.add(new BlobInfo(key, object.size(), object.lastModified()));
+                    }
+                }
+                if (!Boolean.TRUE.equals(response.isTruncated())) {
+                    break;
+                }
+            }
+        } catch (S3Exception e) {
+            throw new IOException("Failed to list blobs", e);
+        }
+        return blobs;
+    }
+
+    private String objectKey(String key) {
+        BlobKeys.validate(key);
+        return prefix + key;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ticketing.storage;
+
+import com.ticketing.cache.CacheInvalidationBus;
+import com.ticketing.model.Attachment;
+import com.ticketing.repository.AttachmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Moves attachments stored under the legacy flat {@code file.upload-dir} layout into the
+ * configured {@link BlobStore}. Start the application with {@code --migrate-storage} to run it;
+ * it works in the background while the app keeps serving, since downloads fall back to the
+ * legacy path until a row has been switched over to its storage key.
+ */
+@Component
+public class StorageMigrationRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageMigrationRunner.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("migrate-storage")) {
+            return;
+        }
+
+        Thread worker = new Thread(this::migrateAll, "storage-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void migrateAll() {
+        long migrated = 0;
+        long skipped = 0;
+        long failed = 0;
+        long lastId = 0;
+
+        while (true) {
+            List<Attachment> batch = attachmentRepository
+                    .findTop100ByStorageKeyIsNullAndFilePathIsNotNullAndIdGreaterThanOrderByIdAsc(lastId);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (Attachment attachment : batch) {
+                lastId = attachment.getId();
+                try {
+                    if (migrate(attachment)) {
+                        migrated++;
+                    } else {
+                        skipped++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failed++;
+                    logger.warn("Failed to migrate attachment {}: {}", attachment.getId(), e.getMessage());
+                }
+            }
+
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+
+        logger.info("Storage migration finished: {} migrated, {} skipped, {} failed", migrated, skipped, failed);
+    }
+
+    /** Returns false when the row was deleted or migrated by someone else during the copy */
+    private boolean migrate(Attachment attachment) throws IOException {
+        Path legacyPath = Paths.get(attachment.getFilePath());
+        String storageKey = BlobKeys.newKey(BlobKeys.extensionOf(attachment.getFileName()));
+
+        try (InputStream in = Files.newInputStream(legacyPath)) {
+            blobStore.put(storageKey, in, Files.size(legacyPath));
+        }
+
+        // Switch the row over before removing the legacy file so readers always find a copy. Only these two
+        // columns are written, and only if the row is still unmigrated, since the entity is stale after the copy
+        if (attachmentRepository.switchToStorageKey(attachment.getId(), storageKey) == 0) {
+            blobStore.delete(storageKey);
+            return false;
+        }
+        cacheInvalidationBus.attachmentChanged(attachment.getId(), attachment.getTicket().getId());
+
+        Files.deleteIfExists(legacyPath);
+        return true;
+    }
+}
@@ -0,0 +1,265 @@
+package com.ticketing.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketing.dto.UserResponse;
+import com.ticketing.model.Priority;
+import com.ticketing.model.Ticket;
+import com.ticketing.model.TicketStatus;
+import com.ticketing.model.User;
+import com.ticketing.repository.TicketRepository;
+import com.ticketing.repository.UserRepository;
+import com.ticketing.security.JwtUtils;
+import com.ticketing.security.UserPrincipal;
+import com.ticketing.service.TicketService;
+import com.ticketing.service.UserDetailsServiceImpl;
+import com.ticketing.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the hot read paths against real rows before the application reports ready, so the first requests after a
+ * deploy do not pay for JIT compilation, Hibernate query plans, Hikari connection setup and Jackson serializer
+ * construction. Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC} only after every
+ * {@link ApplicationRunner} has returned, so {@code /actuator/health/readiness} stays OUT_OF_SERVICE meanwhile.
+ *
+ * The paths are those the controllers take: the ticket list queries with their default sort, ticket and user
+ * lookups, JWT issue and validation, and serialization of {@link Ticket} pages and {@link UserResponse}. Work stops
+ * when the time budget runs out or every path has run {@code warmup.iterations} times; what ran is logged and
+ * shown under {@code warmup} in {@code /actuator/info}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupWarmup implements ApplicationRunner, InfoContributor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final Pageable LIST_PAGE = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${warmup.budget}")
+    private Duration budget;
+
+    @Value("${warmup.iterations}")
+    private int iterations;
+
+    @Value("${warmup.threads}")
+    private int threads;
+
+    @Value("${warmup.sample-size}")
+    private int sampleSize;
+
+    private volatile Map<String, Object> report = Map.of("status", "pending");
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled) {
+            report = Map.of("status", "disabled");
+            return;
+        }
+
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<User> users;
+        List<Long> ticketIds;
+        try {
+            users = readOnly.execute(status -> userRepository.findAll(PageRequest.of(0, sampleSize)).getContent());
+            ticketIds = readOnly.execute(status -> ticketRepository
+                    .findAll(PageRequest.of(0, sampleSize, Sort.by("id").descending()))
+                    .map(Ticket::getId)
+                    .getContent());
+        } catch (RuntimeException e) {
+            // A warm-up must never keep the application from starting
+            report = Map.of("status", "failed: " + e.getMessage());
+            logger.warn("Warm-up skipped: could not load sample data", e);
+            return;
+        }
+        if (users.isEmpty()) {
+            report = Map.of("status", "skipped, no users");
+            logger.info("Warm-up skipped: no users in the database");
+            return;
+        }
+
+        Map<String, Path> paths = new LinkedHashMap<>();
+        paths.put("ticket-filters", new Path(i -> {
+            TicketStatus status = pick(TicketStatus.values(), i);
+            Priority priority = pick(Priority.values(), i / 7);
+            serialize(ticketService.getTicketsWithFilters(null, status, priority, null, null, LIST_PAGE));
+        }));
+        paths.put("user-tickets", new Path(i -> {
+            User user = userRepository.findByUsername(users.get(i % users.size()).getUsername()).orElseThrow();
+            String search = i % 3 == 0 ? "a" : null;
+            serialize(ticketService.getUserTicketsWithFilters(user, search, pick(TicketStatus.values(), i),
+                    null, LIST_PAGE));
+        }));
+        if (!ticketIds.isEmpty()) {
+            paths.put("ticket-detail", new Path(i ->
+                    ticketService.getTicketById(ticketIds.get(i % ticketIds.size())).ifPresent(this::serialize)));
+        }
+        paths.put("user-lookups", new Path(i -> {
+            String username = users.get(i % users.size()).getUsername();
+            userDetailsService.loadUserByUsername(username);
+            userService.getUserByUsername(username).ifPresent(this::serialize);
+            serialize(userService.getUsersWithFilters(null, null, null, PageRequest.of(0, 10)));
+        }));
+        paths.put("jwt", new Path(i -> {
+            UserPrincipal principal = UserPrincipal.create(users.get(i % users.size()));
+            String token = jwtUtils.generateJwtToken(
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            if (jwtUtils.validateJwtToken(token)) {
+                jwtUtils.getUserNameFromJwtToken(token);
+            }
+        }));
+
+        long deadline = start + budget.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("warmup-", 0).factory());
+        for (int t = 0; t < threads; t++) {
+            // Round-robin, so every path gets its share when the budget runs out first
+            executor.execute(() -> {
+                boolean more = true;
+                while (more && System.nanoTime() < deadline) {
+                    more = false;
+                    for (Path path : paths.values()) {
+                        int i = path.next.getAndIncrement();
+                        if (i < iterations) {
+                            path.run(readOnly, i);
+                            more = true;
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(budget.toMillis() + 5000, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Map<String, Object> warmed = new LinkedHashMap<>();
+        List<String> summary = new ArrayList<>();
+        boolean completed = true;
+        for (Map.Entry<String, Path> entry : paths.entrySet()) {
+            Path path = entry.getValue();
+            int runs = Math.min(path.next.get(), iterations);
+            completed &= runs == iterations;
+            warmed.put(entry.getKey(), Map.of("iterations", runs, "errors", path.errors.get(),
+                    "millis", TimeUnit.NANOSECONDS.toMillis(path.nanos.get())));
+            summary.add(entry.getKey() + "=" + runs + (path.errors.get() > 0 ? " (" + path.errors.get() + " errors)" : ""));
+        }
+        String status = completed ? "completed" : "budget exhausted";
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", status);
+        result.put("millis", elapsedMillis);
+        result.put("paths", warmed);
+        report = result;
+        logger.info("Warm-up {} in {} ms: {}", status, elapsedMillis, String.join(", ", summary));
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("warmup", report);
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Cycles through the values and null, the unfiltered case */
+    private static <T> T pick(T[] values, int i) {
+        int index = i % (values.length + 1);
+        return index < values.length ? values[index] : null;
+    }
+
+    private interface Step {
+        void run(int iteration) throws Exception;
+    }
+
+    private static final class Path {
+        private final Step step;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicLong nanos = new AtomicLong();
+
+        private Path(Step step) {
+            this.step = step;
+        }
+
+        private void run(TransactionTemplate readOnly, int iteration) {
+            long start = System.nanoTime();
+            try {
+                // One read-only transaction per iteration, like a request with open-in-view
+                readOnly.executeWithoutResult(status -> {
+                    try {
+                        step.run(iteration);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                if (errors.getAndIncrement() == 0) {
+                    logger.warn("Warm-up path failed on iteration {}", iteration, e);
+                }
+            } finally {
+                nanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+}